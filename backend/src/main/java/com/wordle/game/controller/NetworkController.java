@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -38,6 +39,23 @@ public class NetworkController {
         }
     }
     
+    /**
+     * Live words-remaining count of every player in a TCP room
+     */
+    @GetMapping("/rooms/{roomId}/words-remaining")
+    public ResponseEntity<Map<String, Object>> getWordsRemaining(@PathVariable String roomId) {
+        try {
+            Map<String, Integer> remaining = networkManager.getWordsRemaining(roomId);
+            if (remaining == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(Map.of("roomId", roomId, "wordsRemaining", remaining));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to get words remaining", "message", String.valueOf(e.getMessage())));
+        }
+    }
+    
     /**
      * Restart network services
      */
@@ -64,21 +82,21 @@ public class NetworkController {
             "title", "Wordle Multi-Protocol Network Architecture",
             "protocols", Map.of(
                 "websocket", Map.of(
-                    "port", 8080,
+                    "port", networkManager.getWebPort(),
                     "protocol", "WebSocket/STOMP over HTTP",
                     "purpose", "Web client real-time communication",
                     "features", new String[]{"Real-time updates", "Bidirectional communication", "Session management"},
                     "concepts", new String[]{"WebSocket Protocol", "STOMP Messaging", "HTTP Upgrade"}
                 ),
                 "tcp", Map.of(
-                    "port", 8081,
+                    "port", networkManager.getTcpPort(),
                     "protocol", "TCP/IP with NIO (Non-blocking I/O)",
                     "purpose", "Direct socket game communication",
                     "features", new String[]{"Reliable delivery", "Connection-oriented", "Multi-threading", "NIO Selector"},
                     "concepts", new String[]{"Socket Programming", "Multi-threading", "NIO", "Selector Pattern"}
                 ),
                 "udp", Map.of(
-                    "port", 8082,
+                    "port", networkManager.getUdpPort(),
                     "protocol", "UDP (User Datagram Protocol)",
                     "purpose", "Fast statistics and leaderboard updates",
                     "features", new String[]{"Connectionless", "Low latency", "Fire-and-forget", "Statistical data"},
@@ -8,10 +8,10 @@ import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,8 +21,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.wordle.game.network.ChatBatcher;
 import com.wordle.game.service.EnhancedDictionaryService;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 @Controller
 @RestController
 @RequestMapping("/api/rooms")
@@ -34,8 +38,25 @@ public class RoomController {
     @Autowired
     private EnhancedDictionaryService dictionaryService;
 
+    @Value("${wordle.chat.tick-ms:50}")
+    private long chatTickMillis = 50;
+    
+    @Value("${wordle.chat.max-batch:32}")
+    private int chatMaxBatch = 32;
+
     private Map<String, GameRoom> rooms = new ConcurrentHashMap<>();
     private Map<String, String> playerRooms = new ConcurrentHashMap<>();
+    private ChatBatcher<Map<String, Object>> chatBatcher;
+
+    @PostConstruct
+    public void startChatBatcher() {
+        chatBatcher = new ChatBatcher<>("stomp-chat", chatTickMillis, chatMaxBatch, this::publishChatBatch);
+    }
+
+    @PreDestroy
+    public void stopChatBatcher() {
+        chatBatcher.shutdown();
+    }
 
     @PostMapping("/create")
     public ResponseEntity<Map<String, String>> createRoom(@RequestBody Map<String, String> request) {
@@ -122,14 +143,18 @@ public class RoomController {
     }
 
     @MessageMapping("/room/{roomCode}/chat")
-    @SendTo("/topic/room/{roomCode}/chat")
-    public Map<String, Object> sendChatMessage(@DestinationVariable String roomCode, Map<String, String> message) {
+    public void sendChatMessage(@DestinationVariable String roomCode, Map<String, String> message) {
         Map<String, Object> chatMessage = new HashMap<>();
         chatMessage.put("player", message.get("player"));
         chatMessage.put("message", message.get("message"));
         chatMessage.put("timestamp", System.currentTimeMillis());
         
-        return chatMessage;
+        // Published with the room's other lines from this tick
+        chatBatcher.add(roomCode, chatMessage);
+    }
+
+    private void publishChatBatch(String roomCode, List<Map<String, Object>> lines) {
+        messagingTemplate.convertAndSend("/topic/room/" + roomCode + "/chat", Map.of("messages", lines));
     }
 
     @PostMapping("/{roomCode}/leave")
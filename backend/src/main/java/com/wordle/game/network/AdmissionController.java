@@ -0,0 +1,108 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission Control cho kết nối TCP mới
+ * Áp dụng kiến thức: Admission Control, Load Shedding, Rate Limiting
+ *
+ * A new connection is admitted only if the accept rate, the total connection
+ * limit and the per-address limit all allow it. Rejections are counted by
+ * reason instead of logged. Both {@link #admit} (one caller per listener)
+ * and {@link #release} may run on any thread; release is idempotent.
+ */
+public class AdmissionController {
+
+    public enum Rejection {
+        ACCEPT_RATE,
+        MAX_CONNECTIONS,
+        MAX_PER_ADDRESS
+    }
+
+    private final int maxConnections;
+    private final int maxPerAddress;
+    private final TokenBucket acceptRate;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<InetAddress, Integer> perAddress = new ConcurrentHashMap<>();
+    private final Map<SocketChannel, InetAddress> admitted = new ConcurrentHashMap<>();
+    private final LongAdder[] rejected = new LongAdder[Rejection.values().length];
+
+    /**
+     * @param maxConnections total limit, 0 for none
+     * @param maxPerAddress limit per remote IP, 0 for none
+     * @param acceptRatePerSecond sustained accept rate, 0 for none
+     * @param acceptBurst accepts allowed back to back
+     */
+    public AdmissionController(int maxConnections, int maxPerAddress, double acceptRatePerSecond, int acceptBurst) {
+        this.maxConnections = maxConnections;
+        this.maxPerAddress = maxPerAddress;
+        this.acceptRate = acceptRatePerSecond > 0 ? new TokenBucket(acceptRatePerSecond, acceptBurst) : null;
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Decide on a freshly accepted channel
+     *
+     * @return null if admitted, otherwise why it was rejected
+     */
+    public Rejection admit(SocketChannel channel) throws IOException {
+        if (acceptRate != null) {
+            boolean allowed;
+            synchronized (acceptRate) {
+                allowed = acceptRate.tryAcquire();
+            }
+            if (!allowed) {
+                return reject(Rejection.ACCEPT_RATE);
+            }
+        }
+        InetAddress address = ((InetSocketAddress) channel.getRemoteAddress()).getAddress();
+        if (connections.incrementAndGet() > maxConnections && maxConnections > 0) {
+            connections.decrementAndGet();
+            return reject(Rejection.MAX_CONNECTIONS);
+        }
+        if (perAddress.merge(address, 1, Integer::sum) > maxPerAddress && maxPerAddress > 0) {
+            releaseSlot(address);
+            return reject(Rejection.MAX_PER_ADDRESS);
+        }
+
+        admitted.put(channel, address);
+        return null;
+    }
+
+    /**
+     * Give back the slot of an admitted channel (no-op for unknown channels)
+     */
+    public void release(SocketChannel channel) {
+        InetAddress address = admitted.remove(channel);
+        if (address != null) {
+            releaseSlot(address);
+        }
+    }
+
+    private void releaseSlot(InetAddress address) {
+        connections.decrementAndGet();
+        perAddress.computeIfPresent(address, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private Rejection reject(Rejection reason) {
+        rejected[reason.ordinal()].increment();
+        return reason;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public long getRejected(Rejection reason) {
+        return rejected[reason.ordinal()].sum();
+    }
+}
@@ -0,0 +1,276 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compact Binary Encoding cho GameMessage
+ * Áp dụng kiến thức: Binary Protocol Design, Varint Encoding, Session-scoped Ids
+ *
+ * Negotiated per connection with a HELLO message; always carried in
+ * length-prefixed frames. Every payload starts with the one-byte
+ * {@link MessageType} code. Room and player are varint ids from
+ * {@link SessionIdRegistry} (0 for a name that holds none), timestamps
+ * are varints of epoch millis, strings are a varint byte length followed
+ * by UTF-8.
+ *
+ * <pre>
+ * GAME_MOVE       type | roomId | playerId | timestamp | word (5 ASCII bytes)
+ * HEARTBEAT(_ACK) type | timestamp
+ * SYSTEM_MESSAGE  type | timestamp | content
+ * JOIN_ROOM       type | roomName | playerName | timestamp
+ * ID_ASSIGN       type | kind (0 room, 1 player) | id | name
+ * ROUND_RESULT    type | roomId | timestamp | round | word (5 ASCII bytes) | player count
+ *                 | per player: playerId | attempts | completed (0/1) | completion millis | words remaining
+ * other types     type | [typeName if OTHER] | roomId | playerId | timestamp | content | data (JSON bytes)
+ *                 (CHAT_BATCH carries its lines as data)
+ * </pre>
+ */
+public class BinaryMessageCodec {
+
+    public static final String PROTOCOL_NAME = "binary/1";
+
+    private static final int WORD_LENGTH = 5;
+    private static final int LENGTH_HEADER_SIZE = 4;
+
+    private final SessionIdRegistry ids;
+    private final ObjectMapper objectMapper;
+
+    public BinaryMessageCodec(SessionIdRegistry ids, ObjectMapper objectMapper) {
+        this.ids = ids;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Encode a message into a complete length-prefixed frame
+     */
+    public ByteBuffer encodeFrame(GameMessage message) throws IOException {
+        Writer out = new Writer();
+        out.reserveLengthHeader();
+
+        MessageType type = MessageType.fromName(message.getType());
+        if (type == MessageType.GAME_MOVE && !isFixedWord(message.getData())) {
+            // Not a plain 5-letter word: fall back to the generic layout
+            type = MessageType.OTHER;
+        } else if (type == MessageType.ROUND_RESULT && !isCompactResult(message.getData())) {
+            type = MessageType.OTHER;
+        }
+        out.writeByte(type.code());
+
+        switch (type) {
+            case GAME_MOVE:
+                out.writeVarint(ids.idFor(SessionIdRegistry.Kind.ROOM, message.getRoomId()));
+                out.writeVarint(ids.idFor(SessionIdRegistry.Kind.PLAYER, message.getPlayerId()));
+                out.writeVarint(message.getTimestamp());
+                out.writeAscii((String) message.getData());
+                break;
+            case HEARTBEAT:
+            case HEARTBEAT_ACK:
+                out.writeVarint(message.getTimestamp());
+                break;
+            case SYSTEM_MESSAGE:
+                out.writeVarint(message.getTimestamp());
+                out.writeString(message.getContent());
+                break;
+            case JOIN_ROOM:
+                out.writeString(message.getRoomId());
+                out.writeString(message.getPlayerId());
+                out.writeVarint(message.getTimestamp());
+                break;
+            case ID_ASSIGN:
+                out.writeByte((byte) ("PLAYER".equals(message.getContent()) ? 1 : 0));
+                out.writeVarint(((Number) message.getData()).longValue());
+                out.writeString(message.getPlayerId() != null ? message.getPlayerId() : message.getRoomId());
+                break;
+            case ROUND_RESULT: {
+                RoundResult result = (RoundResult) message.getData();
+                out.writeVarint(ids.idFor(SessionIdRegistry.Kind.ROOM, message.getRoomId()));
+                out.writeVarint(message.getTimestamp());
+                out.writeVarint(result.roundNumber());
+                out.writeAscii(result.correctWord());
+                out.writeVarint(result.players().size());
+                for (RoundResult.PlayerResult player : result.players()) {
+                    out.writeVarint(ids.idFor(SessionIdRegistry.Kind.PLAYER, player.playerId()));
+                    out.writeVarint(player.attempts());
+                    out.writeByte((byte) (player.completed() ? 1 : 0));
+                    out.writeVarint(player.completionTime());
+                    out.writeVarint(player.wordsRemaining());
+                }
+                break;
+            }
+            default:
+                if (type == MessageType.OTHER) {
+                    out.writeString(message.getType());
+                }
+                out.writeVarint(ids.idFor(SessionIdRegistry.Kind.ROOM, message.getRoomId()));
+                out.writeVarint(ids.idFor(SessionIdRegistry.Kind.PLAYER, message.getPlayerId()));
+                out.writeVarint(message.getTimestamp());
+                out.writeString(message.getContent());
+                byte[] data = message.getData() != null ? objectMapper.writeValueAsBytes(message.getData()) : null;
+                out.writeBytes(data);
+        }
+
+        return out.toFrame();
+    }
+
+    /**
+     * Decode one inbound frame payload (without its length header)
+     *
+     * @return the typed message, or null for types clients may not send
+     */
+    public ClientMessage decode(ByteBuffer payload) throws IOException {
+        MessageType type = MessageType.fromCode(payload.get());
+
+        switch (type) {
+            case GAME_MOVE: {
+                String roomId = ids.nameFor((int) readVarint(payload));
+                String playerId = ids.nameFor((int) readVarint(payload));
+                long timestamp = readVarint(payload);
+                return new GameMoveMessage(roomId, playerId, readAscii(payload, WORD_LENGTH), timestamp);
+            }
+            case HEARTBEAT:
+                return new HeartbeatMessage(readVarint(payload));
+            case JOIN_ROOM: {
+                String roomName = readString(payload);
+                String playerName = readString(payload);
+                return new JoinRoomMessage(roomName, playerName, readVarint(payload));
+            }
+            case CHAT_MESSAGE:
+            case HELLO:
+            case RESUME:
+            case ROUND_HISTORY: {
+                // Generic layout; embedded data is not used by these handlers
+                String roomId = ids.nameFor((int) readVarint(payload));
+                String playerId = ids.nameFor((int) readVarint(payload));
+                long timestamp = readVarint(payload);
+                String content = readString(payload);
+                switch (type) {
+                    case HELLO:
+                        return new HelloMessage(content);
+                    case RESUME:
+                        return new ResumeMessage(content);
+                    case ROUND_HISTORY:
+                        return new RoundHistoryMessage();
+                    default:
+                        return new ChatMessage(roomId, playerId, content, timestamp);
+                }
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isFixedWord(Object data) {
+        if (!(data instanceof String) || ((String) data).length() != WORD_LENGTH) {
+            return false;
+        }
+        String word = (String) data;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            if (word.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCompactResult(Object data) {
+        return data instanceof RoundResult && isFixedWord(((RoundResult) data).correctWord());
+    }
+
+    static long readVarint(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = (int) readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IOException("String length " + length + " exceeds frame");
+        }
+        String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static String readAscii(ByteBuffer in, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (in.get() & 0x7F);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Growable output buffer; the finished bytes are wrapped without another copy
+     */
+    private static final class Writer {
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        void reserveLengthHeader() {
+            size = LENGTH_HEADER_SIZE;
+        }
+
+        void writeByte(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeAscii(String value) {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[size++] = (byte) value.charAt(i);
+            }
+        }
+
+        void writeString(String value) {
+            writeBytes(value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+        }
+
+        void writeBytes(byte[] value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        ByteBuffer toFrame() {
+            ByteBuffer frame = ByteBuffer.wrap(bytes, 0, size);
+            frame.putInt(0, size - LENGTH_HEADER_SIZE);
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.wordle.game.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chỉ mục bitset cho tập đáp án còn lại
+ * Áp dụng kiến thức: Bitsets, Word-level Parallelism, Constraint Propagation
+ *
+ * A set of possible answers is a {@code long[]} with one bit per answer.
+ * Narrowing a set by a guess and its feedback never scores the answers:
+ * the feedback is turned into letter constraints, and each constraint is
+ * an AND (or AND NOT) with a precomputed bitset, 64 answers per operation.
+ *
+ * For every letter {@code L} of the guess: a green at {@code i} keeps
+ * answers with {@code L} at {@code i}, a yellow or gray keeps answers
+ * without it there. With {@code n} greens and yellows of {@code L}, answers
+ * must hold at least {@code n} of {@code L}, and exactly {@code n} if some
+ * {@code L} is gray. This matches {@link WordleScorer#score} exactly,
+ * including a pattern no answer can produce, which empties the set.
+ *
+ * The index is immutable and shared; the sets belong to their callers.
+ */
+public class CandidateIndex {
+
+    private static final int LETTERS = 26;
+    private static final int LENGTH = WordleScorer.WORD_LENGTH;
+
+    private final List<String> answers;
+    private final int setLength;
+    /** Answers with letter L at position i, at [i * 26 + L] */
+    private final long[][] letterAt;
+    /** Answers with at least c of letter L, at [L * 6 + c] for c in 1..5 */
+    private final long[][] letterCount;
+    private final long[] all;
+
+    public CandidateIndex(List<String> answers) {
+        this.answers = List.copyOf(answers);
+        this.setLength = (answers.size() + 63) >>> 6;
+        this.letterAt = new long[LENGTH * LETTERS][setLength];
+        this.letterCount = new long[LETTERS * (LENGTH + 1)][setLength];
+        this.all = new long[setLength];
+        int[] counts = new int[LETTERS];
+        for (int answer = 0; answer < answers.size(); answer++) {
+            int packed = WordleScorer.pack(answers.get(answer));
+            int word = answer >>> 6;
+            long bit = 1L << answer;
+            all[word] |= bit;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < LENGTH; i++) {
+                int letter = WordleScorer.letterAt(packed, i);
+                letterAt[i * LETTERS + letter][word] |= bit;
+                counts[letter]++;
+            }
+            for (int letter = 0; letter < LETTERS; letter++) {
+                for (int c = 1; c <= counts[letter]; c++) {
+                    letterCount[letter * (LENGTH + 1) + c][word] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * A new set holding every answer
+     */
+    public long[] newFullSet() {
+        return all.clone();
+    }
+
+    /**
+     * Refill a set with every answer
+     */
+    public void fill(long[] set) {
+        System.arraycopy(all, 0, set, 0, setLength);
+    }
+
+    /**
+     * Keep only the answers for which {@code guess} (packed) scores {@code pattern}
+     */
+    public void narrow(long[] set, int guess, int pattern) {
+        int lettersSeen = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int letter = WordleScorer.letterAt(guess, i);
+            long[] atPosition = letterAt[i * LETTERS + letter];
+            if (WordleScorer.colorAt(pattern, i) == WordleScorer.GREEN) {
+                and(set, atPosition);
+            } else {
+                andNot(set, atPosition);
+            }
+
+            if ((lettersSeen & (1 << letter)) != 0) {
+                continue;
+            }
+            lettersSeen |= 1 << letter;
+            // Count this letter's colors over the whole guess
+            int marked = 0;
+            boolean gray = false;
+            boolean grayBeforeYellow = false;
+            for (int j = 0; j < LENGTH; j++) {
+                if (WordleScorer.letterAt(guess, j) != letter) {
+                    continue;
+                }
+                int color = WordleScorer.colorAt(pattern, j);
+                if (color == WordleScorer.GRAY) {
+                    gray = true;
+                } else {
+                    marked++;
+                    grayBeforeYellow |= gray && color == WordleScorer.YELLOW;
+                }
+            }
+            if (grayBeforeYellow) {
+                // Yellows go to the leftmost copies, so no answer gives this pattern
+                Arrays.fill(set, 0L);
+                return;
+            }
+            if (marked > 0) {
+                and(set, letterCount[letter * (LENGTH + 1) + marked]);
+            }
+            if (gray && marked < LENGTH) {
+                andNot(set, letterCount[letter * (LENGTH + 1) + marked + 1]);
+            }
+        }
+    }
+
+    private static void and(long[] set, long[] mask) {
+        for (int w = 0; w < set.length; w++) {
+            set[w] &= mask[w];
+        }
+    }
+
+    private static void andNot(long[] set, long[] mask) {
+        for (int w = 0; w < set.length; w++) {
+            set[w] &= ~mask[w];
+        }
+    }
+
+    public static int count(long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Answers in a set, in dictionary order; at most {@code limit} of them
+     */
+    public List<String> answersIn(long[] set, int limit) {
+        List<String> result = new ArrayList<>();
+        for (int w = 0; w < set.length && result.size() < limit; w++) {
+            long word = set[w];
+            while (word != 0 && result.size() < limit) {
+                result.add(answers.get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    public int getAnswerCount() {
+        return answers.size();
+    }
+
+    /**
+     * Length of a set, in longs
+     */
+    public int getSetLength() {
+        return setLength;
+    }
+}
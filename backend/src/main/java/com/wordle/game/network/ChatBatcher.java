@@ -0,0 +1,165 @@
+package com.wordle.game.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gom chat theo phòng và gửi theo tick
+ * Áp dụng kiến thức: Batching, Write Coalescing, Fixed-rate Tick
+ *
+ * Chat lines are collected per room and handed to the sink as one list,
+ * either on the next tick or as soon as a room has {@code maxBatch} lines,
+ * so a busy room costs one broadcast per tick instead of one per line.
+ * Lines of a room reach the sink in the order they were added: a room's
+ * batch is taken and delivered under that batch's lock. Only rooms with
+ * lines are visited on a tick, and a room that stays quiet for a whole tick
+ * drops its batch.
+ *
+ * @param <T> one chat line in the form the sink sends
+ */
+public class ChatBatcher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatBatcher.class);
+
+    private final class Batch {
+        private final String roomId;
+        private List<T> lines = new ArrayList<>();
+        /** In the pending queue, i.e. visited on the next tick */
+        private boolean queued;
+        /** Removed from the map; adders must look the room up again */
+        private boolean retired;
+
+        private Batch(String roomId) {
+            this.roomId = roomId;
+        }
+    }
+
+    private final String name;
+    private final int maxBatch;
+    private final BiConsumer<String, List<T>> sink;
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+    private final Queue<Batch> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+    private final LongAdder deliveredBatches = new LongAdder();
+    private final LongAdder deliveredLines = new LongAdder();
+
+    /**
+     * @param tickMillis how long a line may wait for others; 0 sends every line on its own
+     * @param maxBatch lines that make a room flush before its tick
+     * @param sink receives the room and its lines, oldest first
+     */
+    public ChatBatcher(String name, long tickMillis, int maxBatch, BiConsumer<String, List<T>> sink) {
+        this.name = name;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.sink = sink;
+        if (tickMillis > 0) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, name + "-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * Add a line to its room's batch. Safe to call from any thread.
+     */
+    public void add(String roomId, T line) {
+        if (ticker == null) {
+            deliver(roomId, List.of(line));
+            return;
+        }
+        while (true) {
+            Batch batch = batches.computeIfAbsent(roomId, Batch::new);
+            synchronized (batch) {
+                if (batch.retired) {
+                    continue;
+                }
+                batch.lines.add(line);
+                if (batch.lines.size() >= maxBatch) {
+                    deliver(batch);
+                }
+                if (!batch.queued) {
+                    batch.queued = true;
+                    pending.offer(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver every room with lines; rooms queued during this tick wait for the next one
+     */
+    private void tick() {
+        for (int i = pending.size(); i > 0; i--) {
+            Batch batch = pending.poll();
+            if (batch == null) {
+                break;
+            }
+            synchronized (batch) {
+                if (batch.lines.isEmpty()) {
+                    // A whole tick without chat: drop the room until it talks again
+                    batch.queued = false;
+                    batch.retired = true;
+                    batches.remove(batch.roomId, batch);
+                } else {
+                    deliver(batch);
+                    pending.offer(batch);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand the batch's lines to the sink (caller holds the batch's lock)
+     */
+    private void deliver(Batch batch) {
+        List<T> lines = batch.lines;
+        batch.lines = new ArrayList<>();
+        deliver(batch.roomId, lines);
+    }
+
+    private void deliver(String roomId, List<T> lines) {
+        try {
+            sink.accept(roomId, lines);
+            deliveredBatches.increment();
+            deliveredLines.add(lines.size());
+        } catch (RuntimeException e) {
+            logger.error("Error delivering {} chat batch for room {}", name, roomId, e);
+        }
+    }
+
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdown();
+        }
+    }
+
+    public long getDeliveredBatches() {
+        return deliveredBatches.sum();
+    }
+
+    public long getDeliveredLines() {
+        return deliveredLines.sum();
+    }
+
+    public int getActiveRooms() {
+        return batches.size();
+    }
+}
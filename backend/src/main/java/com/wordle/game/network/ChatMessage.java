@@ -0,0 +1,25 @@
+package com.wordle.game.network;
+
+/**
+ * CHAT_MESSAGE: free text in the {@code content} field
+ */
+public record ChatMessage(String roomId, String playerId, String content, long timestamp) implements ClientMessage {
+
+    /**
+     * One line of a CHAT_BATCH; the room is carried once by the batch
+     */
+    public record Line(String playerId, String content, long timestamp) {
+    }
+
+    @Override
+    public MessageType type() {
+        return MessageType.CHAT_MESSAGE;
+    }
+
+    /**
+     * Line for a CHAT_BATCH, under the sender's bound player id rather than the one in the payload
+     */
+    public Line toLine(String playerId) {
+        return new Line(playerId, content, timestamp > 0 ? timestamp : System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,15 @@
+package com.wordle.game.network;
+
+/**
+ * Typed inbound TCP message
+ * Áp dụng kiến thức: Typed Protocol Model, Table-driven Dispatch
+ *
+ * Each implementation is decoded by its own cached ObjectReader (JSON) or
+ * fixed binary layout, so handlers never cast an untyped {@code data} field.
+ */
+public sealed interface ClientMessage
+        permits JoinRoomMessage, GameMoveMessage, ChatMessage, HeartbeatMessage, HelloMessage, ResumeMessage,
+                RoundHistoryMessage {
+
+    MessageType type();
+}
@@ -0,0 +1,34 @@
+package com.wordle.game.network;
+
+/**
+ * The thread that owns a connection's outbound writes, commands and timers
+ * Áp dụng kiến thức: Thread Confinement, Event Loop Abstraction
+ *
+ * Implemented by {@link SelectorWorker} (one loop for many NIO connections)
+ * and by {@link VirtualThreadEngine} (one loop per blocking connection), so
+ * the message handlers in {@link TcpGameServer} work unchanged on either engine.
+ */
+public interface ConnectionLoop {
+
+    /**
+     * Run a command on the loop. Safe to call from any thread.
+     */
+    void execute(Runnable command);
+
+    boolean inEventLoop();
+
+    /**
+     * Run a task on the loop after a delay. Must be called from the loop.
+     */
+    TimingWheel.Timeout schedule(Runnable task, long delayMillis);
+
+    /**
+     * Write out the connection's queued frames. Must be called from the loop.
+     */
+    void flush(PlayerConnection connection);
+
+    /**
+     * Called on the loop once the connection has been removed from the server
+     */
+    void onConnectionClosed(PlayerConnection connection);
+}
@@ -0,0 +1,112 @@
+package com.wordle.game.network;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooled Direct Buffer Allocator
+ * Áp dụng kiến thức: Off-heap Memory, Object Pooling, Size Classes
+ *
+ * Direct buffers are expensive to allocate and are only reclaimed by GC, so
+ * connections borrow them from fixed size classes and return them on close.
+ */
+public class DirectBufferPool {
+
+    private static final int[] SIZE_CLASSES = {1024, 4096, 16384, 65536, 262144};
+    private static final int MAX_POOLED_PER_CLASS = 1024;
+
+    private final List<ConcurrentLinkedQueue<ByteBuffer>> freeLists;
+    private final AtomicInteger[] pooledCounts;
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+
+    public DirectBufferPool() {
+        this.freeLists = new ArrayList<>(SIZE_CLASSES.length);
+        this.pooledCounts = new AtomicInteger[SIZE_CLASSES.length];
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            freeLists.add(new ConcurrentLinkedQueue<>());
+            pooledCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Borrow a cleared direct buffer with at least the requested capacity
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int sizeClass = sizeClassFor(minCapacity);
+        if (sizeClass < 0) {
+            // Larger than any size class: not pooled
+            allocations.incrementAndGet();
+            return ByteBuffer.allocateDirect(minCapacity);
+        }
+
+        ByteBuffer buffer = freeLists.get(sizeClass).poll();
+        if (buffer != null) {
+            pooledCounts[sizeClass].decrementAndGet();
+            reuses.incrementAndGet();
+            buffer.clear();
+            return buffer;
+        }
+
+        allocations.incrementAndGet();
+        return ByteBuffer.allocateDirect(SIZE_CLASSES[sizeClass]);
+    }
+
+    /**
+     * Return a buffer obtained from {@link #acquire(int)}
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+
+        int sizeClass = exactSizeClass(buffer.capacity());
+        if (sizeClass < 0) {
+            return;
+        }
+
+        if (pooledCounts[sizeClass].incrementAndGet() <= MAX_POOLED_PER_CLASS) {
+            freeLists.get(sizeClass).offer(buffer);
+        } else {
+            pooledCounts[sizeClass].decrementAndGet();
+        }
+    }
+
+    private static int sizeClassFor(int capacity) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (capacity <= SIZE_CLASSES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int exactSizeClass(int capacity) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (capacity == SIZE_CLASSES[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long getAllocations() {
+        return allocations.get();
+    }
+
+    public long getReuses() {
+        return reuses.get();
+    }
+
+    public int getPooledBuffers() {
+        int total = 0;
+        for (AtomicInteger count : pooledCounts) {
+            total += count.get();
+        }
+        return total;
+    }
+}
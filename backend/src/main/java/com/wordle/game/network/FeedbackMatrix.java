@@ -0,0 +1,254 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ma trận phản hồi guess × answer ánh xạ bộ nhớ
+ * Áp dụng kiến thức: Memory-mapped Files, Precomputation, Content Versioning
+ *
+ * The {@link WordleScorer} pattern of every allowed guess against every
+ * possible answer, one byte each, row by guess. The matrix is built once
+ * into a file named after the dictionary hash and then mapped read-only,
+ * so it costs no heap, is shared by every thread without locks, and a
+ * restart with the same dictionary only maps the file again. A file whose
+ * header does not match the dictionary, or whose patterns do not match the
+ * checksum in its header (a torn write, a planted file), is rebuilt; files
+ * of other dictionaries in the directory are removed after a rebuild. The
+ * directory is created readable by its owner only.
+ *
+ * File layout: magic, format version, guess count, answer count (ints,
+ * big-endian), the 32-byte dictionary hash, the SHA-256 of the patterns,
+ * then the patterns.
+ */
+public class FeedbackMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackMatrix.class);
+
+    private static final int MAGIC = 0x57464d31; // "WFM1"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HASH_BYTES = 32;
+    private static final int BODY_HASH_OFFSET = 16 + HASH_BYTES;
+    private static final int HEADER_BYTES = BODY_HASH_OFFSET + HASH_BYTES;
+    private static final String FILE_PREFIX = "feedback-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final int guessCount;
+    private final int answerCount;
+    private final MappedByteBuffer patterns;
+    private final Path file;
+    private final boolean rebuilt;
+
+    private FeedbackMatrix(int guessCount, int answerCount, MappedByteBuffer patterns, Path file, boolean rebuilt) {
+        this.guessCount = guessCount;
+        this.answerCount = answerCount;
+        this.patterns = patterns;
+        this.file = file;
+        this.rebuilt = rebuilt;
+    }
+
+    /**
+     * Map the matrix of these words from {@code directory}, building its file first if missing or stale
+     *
+     * @param guesses allowed guesses, upper case, five letters each
+     * @param answers possible answers, upper case, five letters each
+     */
+    public static FeedbackMatrix open(Path directory, List<String> guesses, List<String> answers) throws IOException {
+        long size = HEADER_BYTES + (long) guesses.size() * answers.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Feedback matrix of " + guesses.size() + " x " + answers.size() + " words does not fit one mapping");
+        }
+        byte[] hash = WordleWords.hash(guesses, answers);
+        createPrivateDirectory(directory);
+        // The first 8 bytes of the hash name the file; the header keeps all of it
+        Path file = directory.resolve(FILE_PREFIX + HexFormat.of().formatHex(hash, 0, 8) + FILE_SUFFIX);
+
+        boolean rebuilt = false;
+        byte[] bodyHash = storedBodyHash(file, size, guesses.size(), answers.size(), hash);
+        if (bodyHash == null) {
+            build(directory, file, guesses, answers, hash);
+            removeOtherFiles(directory, file);
+            rebuilt = true;
+        }
+
+        MappedByteBuffer patterns = map(file, size);
+        if (!rebuilt && !MessageDigest.isEqual(bodyHash, bodyHash(patterns))) {
+            logger.warn("Feedback matrix {} does not match its checksum; rebuilding it", file);
+            build(directory, file, guesses, answers, hash);
+            rebuilt = true;
+            patterns = map(file, size);
+        }
+        logger.info("Feedback matrix {} x {} {} from {}", guesses.size(), answers.size(),
+                rebuilt ? "built" : "mapped", file);
+        return new FeedbackMatrix(guesses.size(), answers.size(), patterns, file, rebuilt);
+    }
+
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rwx------")));
+        } else {
+            Files.createDirectories(directory);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * SHA-256 of the patterns of a mapped file
+     */
+    private static byte[] bodyHash(MappedByteBuffer file) {
+        MessageDigest digest = newDigest();
+        digest.update(file.duplicate().position(HEADER_BYTES));
+        return digest.digest();
+    }
+
+    /**
+     * Checksum of the patterns kept in the header of a file of these words
+     *
+     * @return null if the file is missing, has the wrong size, or its header is for other words
+     */
+    private static byte[] storedBodyHash(Path file, long size, int guessCount, int answerCount, byte[] hash) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != size) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    return null;
+                }
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION
+                || header.getInt() != guessCount || header.getInt() != answerCount) {
+            return null;
+        }
+        for (byte b : hash) {
+            if (header.get() != b) {
+                return null;
+            }
+        }
+        byte[] bodyHash = new byte[HASH_BYTES];
+        header.get(bodyHash);
+        return bodyHash;
+    }
+
+    /**
+     * Score every pair into a temporary file, then move it into place atomically.
+     * The checksum of the patterns goes into the header once they are written.
+     */
+    private static void build(Path directory, Path file, List<String> guesses, List<String> answers, byte[] hash) throws IOException {
+        int[] packedAnswers = new int[answers.size()];
+        for (int i = 0; i < packedAnswers.length; i++) {
+            packedAnswers[i] = WordleScorer.pack(answers.get(i));
+        }
+        Path temp = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(guesses.size()).putInt(answers.size()).put(hash);
+                // The checksum of the patterns is left zero until they are written
+                header.position(HEADER_BYTES).flip();
+                writeFully(channel, header);
+
+                MessageDigest digest = newDigest();
+                ByteBuffer row = ByteBuffer.allocate(answers.size());
+                for (String guess : guesses) {
+                    int packedGuess = WordleScorer.pack(guess);
+                    row.clear();
+                    for (int packedAnswer : packedAnswers) {
+                        row.put((byte) WordleScorer.score(packedGuess, packedAnswer));
+                    }
+                    row.flip();
+                    digest.update(row.duplicate());
+                    writeFully(channel, row);
+                }
+                ByteBuffer bodyHash = ByteBuffer.wrap(digest.digest());
+                while (bodyHash.hasRemaining()) {
+                    channel.write(bodyHash, BODY_HASH_OFFSET + bodyHash.position());
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void removeOtherFiles(Path directory, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path other : files) {
+                if (!other.equals(keep)) {
+                    Files.deleteIfExists(other);
+                    logger.info("Removed stale feedback matrix {}", other);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not remove stale feedback matrices in {}", directory, e);
+        }
+    }
+
+    /**
+     * Pattern of guess {@code guessIndex} against answer {@code answerIndex}: one read of the mapping
+     */
+    public int pattern(int guessIndex, int answerIndex) {
+        return patterns.get(HEADER_BYTES + guessIndex * answerCount + answerIndex) & 0xFF;
+    }
+
+    public int getGuessCount() {
+        return guessCount;
+    }
+
+    public int getAnswerCount() {
+        return answerCount;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * True if this process built the file, false if it mapped an existing one
+     */
+    public boolean wasRebuilt() {
+        return rebuilt;
+    }
+}
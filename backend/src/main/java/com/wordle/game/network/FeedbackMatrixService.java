@@ -0,0 +1,72 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Nạp ma trận phản hồi khi khởi động
+ * Áp dụng kiến thức: Startup Precomputation, Shared Read-only Data
+ *
+ * Opens the {@link FeedbackMatrix} of {@link WordleWords} once at startup
+ * (building its file on the first start and after a dictionary change)
+ * and shares it with hints, analysis and bots. If the file cannot be
+ * written or mapped the server still runs; callers then score with
+ * {@link WordleScorer} directly.
+ */
+@Service
+public class FeedbackMatrixService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackMatrixService.class);
+
+    @Value("${wordle.feedback-matrix.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${wordle.feedback-matrix.dir:${user.home}/.wordle/feedback-matrix}")
+    private String directory = System.getProperty("user.home") + "/.wordle/feedback-matrix";
+
+    private volatile FeedbackMatrix matrix;
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            logger.info("Feedback matrix disabled");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            matrix = FeedbackMatrix.open(Path.of(directory), WordleWords.guesses(), WordleWords.answers());
+            logger.info("Feedback matrix ready in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Feedback matrix unavailable in {}; scoring on demand", directory, e);
+        }
+    }
+
+    /**
+     * The shared matrix, or null if it is disabled or could not be opened
+     */
+    public FeedbackMatrix getMatrix() {
+        return matrix;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        FeedbackMatrix current = matrix;
+        stats.put("available", current != null);
+        if (current != null) {
+            stats.put("guesses", current.getGuessCount());
+            stats.put("answers", current.getAnswerCount());
+            stats.put("file", current.getFile().toString());
+            stats.put("rebuilt", current.wasRebuilt());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,213 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stream Framing cho TCP Connection
+ * Áp dụng kiến thức: Message Framing, Stream-oriented Protocol, Buffer Management
+ *
+ * TCP là byte stream: một lần read() có thể chứa nửa message hoặc nhiều message.
+ * Mỗi connection giữ một FrameCodec với buffer tích luỹ; decode() tách tất cả
+ * frame hoàn chỉnh trong một lượt và giữ nguyên phần dư cho lần read tiếp theo.
+ */
+public class FrameCodec {
+
+    /**
+     * Framing modes supported on the wire
+     */
+    public enum Mode {
+        /** One JSON document per line, terminated by '\n' */
+        NEWLINE,
+        /** 4-byte big-endian payload length followed by the payload */
+        LENGTH_PREFIXED
+    }
+
+    /**
+     * Receives each complete frame. The bytes are only valid for the duration of the call.
+     */
+    @FunctionalInterface
+    public interface FrameHandler {
+        void onFrame(ByteBuffer buffer, int offset, int length);
+    }
+
+    private static final int LENGTH_HEADER_SIZE = 4;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile Mode mode;
+    private final int maxFrameSize;
+    private final DirectBufferPool bufferPool;
+    /** Capacity of the buffer an idle connection keeps; larger ones are only held for large frames */
+    private final int defaultCapacity;
+    private ByteBuffer buffer;
+    private int frameStart;
+    private int scanIndex;
+
+    public FrameCodec(Mode mode, int maxFrameSize, DirectBufferPool bufferPool) {
+        this.mode = mode;
+        this.maxFrameSize = maxFrameSize;
+        this.bufferPool = bufferPool;
+        this.buffer = bufferPool.acquire(Math.min(INITIAL_CAPACITY, maxFrameSize + LENGTH_HEADER_SIZE));
+        this.defaultCapacity = buffer.capacity();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Change framing for all following frames, including ones already buffered
+     */
+    public void switchMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Buffer to read the next bytes into. Partial frames stay where they are;
+     * they are only moved when the buffer has no room left behind them.
+     */
+    public ByteBuffer readBuffer() throws IOException {
+        if (!buffer.hasRemaining()) {
+            int pending = buffer.position() - frameStart;
+            if (frameStart > 0) {
+                // Move the partial frame to the front to make room
+                buffer.flip();
+                buffer.position(frameStart);
+                buffer.compact();
+                scanIndex -= frameStart;
+                frameStart = 0;
+            } else if (buffer.capacity() < maxFrameSize + LENGTH_HEADER_SIZE) {
+                // A single frame is larger than the buffer: grow it
+                int newCapacity = Math.min(buffer.capacity() * 2, maxFrameSize + LENGTH_HEADER_SIZE);
+                ByteBuffer larger = bufferPool.acquire(newCapacity);
+                buffer.flip();
+                larger.put(buffer);
+                bufferPool.release(buffer);
+                buffer = larger;
+            } else {
+                throw new IOException("Frame exceeds maximum size of " + maxFrameSize + " bytes (" + pending + " buffered)");
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Decode every complete frame currently buffered
+     *
+     * @return number of frames consumed
+     */
+    public int decode(FrameHandler handler) throws IOException {
+        int frames = 0;
+        // Mode is re-read per frame: a handler may switch it (protocol negotiation)
+        while (buffer != null && (mode == Mode.NEWLINE ? decodeLine(handler) : decodeLengthPrefixed(handler))) {
+            frames++;
+        }
+
+        // The handler may have closed the connection and released the buffer
+        if (buffer == null) {
+            return frames;
+        }
+        if (frameStart == buffer.position()) {
+            // Everything consumed: reuse the buffer from the start
+            buffer.clear();
+            frameStart = 0;
+            scanIndex = 0;
+        } else if (mode == Mode.NEWLINE && buffer.position() - frameStart > maxFrameSize) {
+            throw new IOException("Line exceeds maximum frame size of " + maxFrameSize + " bytes");
+        }
+        if (buffer.capacity() > defaultCapacity && buffer.position() - frameStart <= defaultCapacity) {
+            shrink();
+        }
+        return frames;
+    }
+
+    /**
+     * Go back to a default-size buffer once the large frame it grew for is handled
+     */
+    private void shrink() {
+        ByteBuffer smaller = bufferPool.acquire(defaultCapacity);
+        buffer.flip();
+        buffer.position(frameStart);
+        smaller.put(buffer);
+        bufferPool.release(buffer);
+        buffer = smaller;
+        scanIndex -= frameStart;
+        frameStart = 0;
+    }
+
+    private boolean decodeLine(FrameHandler handler) {
+        int end = buffer.position();
+
+        for (int i = Math.max(scanIndex, frameStart); i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                int start = frameStart;
+                int length = i - start;
+                if (length > 0 && buffer.get(i - 1) == '\r') {
+                    length--;
+                }
+                frameStart = i + 1;
+                scanIndex = frameStart;
+                if (length > 0) {
+                    handler.onFrame(buffer, start, length);
+                }
+                return true;
+            }
+        }
+        scanIndex = end;
+        return false;
+    }
+
+    private boolean decodeLengthPrefixed(FrameHandler handler) throws IOException {
+        int end = buffer.position();
+        if (end - frameStart < LENGTH_HEADER_SIZE) {
+            return false;
+        }
+
+        int length = buffer.getInt(frameStart);
+        if (length < 0 || length > maxFrameSize) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        if (end - frameStart - LENGTH_HEADER_SIZE < length) {
+            return false;
+        }
+
+        int start = frameStart + LENGTH_HEADER_SIZE;
+        frameStart = start + length;
+        scanIndex = frameStart;
+        handler.onFrame(buffer, start, length);
+        return true;
+    }
+
+    /**
+     * Give the read buffer back to the pool. The codec must not be used afterwards.
+     */
+    public void release() {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Wrap a payload into a ready-to-write frame for the given mode
+     */
+    public static ByteBuffer encode(byte[] payload, Mode mode) {
+        ByteBuffer frame;
+        if (mode == Mode.LENGTH_PREFIXED) {
+            frame = ByteBuffer.allocate(LENGTH_HEADER_SIZE + payload.length);
+            frame.putInt(payload.length);
+            frame.put(payload);
+        } else {
+            frame = ByteBuffer.allocate(payload.length + 1);
+            frame.put(payload);
+            frame.put((byte) '\n');
+        }
+        frame.flip();
+        return frame;
+    }
+
+    public static ByteBuffer encode(String payload, Mode mode) {
+        return encode(payload.getBytes(StandardCharsets.UTF_8), mode);
+    }
+}
@@ -0,0 +1,31 @@
+package com.wordle.game.network;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * GAME_MOVE: the guessed word travels in the {@code data} field
+ */
+public record GameMoveMessage(String roomId, String playerId, @JsonProperty("data") String word, long timestamp)
+        implements ClientMessage {
+
+    @Override
+    public MessageType type() {
+        return MessageType.GAME_MOVE;
+    }
+
+    /**
+     * Wire form used when relaying the move to the rest of the room, under the
+     * sender's bound room and player rather than the ids in the payload
+     */
+    public GameMessage toGameMessage(String roomId, String playerId) {
+        GameMessage message = new GameMessage();
+        message.setType(MessageType.GAME_MOVE.name());
+        message.setRoomId(roomId);
+        message.setPlayerId(playerId);
+        message.setData(word);
+        if (timestamp > 0) {
+            message.setTimestamp(timestamp);
+        }
+        return message;
+    }
+}
@@ -1,36 +1,92 @@
 package com.wordle.game.network;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Game Room Management
- * Áp dụng kiến thức: Concurrent Programming, Game State Management
+ * Áp dụng kiến thức: Concurrent Programming, Game State Management, Actor Model
+ *
+ * Membership is a concurrent set that I/O threads read for broadcasts.
+ * All game logic runs in the room's mailbox ({@link SerialExecutor}) over a
+ * shared pool: callers only post to it, so round state has a single writer,
+ * needs no locks, and a slow room never holds up a network thread.
+ *
+ * A player whose connection dropped keeps a suspended seat (by player id)
+ * until they resume or the grace period ends; suspended seats still count
+ * for starting, stopping and completing rounds.
+ *
+ * Round state is kept per seat in {@link RoundSeats}: a player id gets a
+ * seat index when it joins and keeps it until it leaves for good. When a
+ * round ends its seats are copied once into an immutable {@link RoundResult},
+ * which is handed to the server to fan out and kept in a bounded history.
+ *
+ * Round start delays, time limits and the gap between rounds are timers on
+ * the shared {@link TimerService}; they only post back into the mailbox,
+ * and are cancelled when the room drops below two seats.
  */
 public class GameRoom {
     private static final Logger logger = LoggerFactory.getLogger(GameRoom.class);
+    private static final int MAX_ROUND_HISTORY = 50;
+    
+    /**
+     * Round timing, in milliseconds
+     *
+     * @param startDelayMillis wait before the first round once two seats are taken (0 starts at once)
+     * @param timeLimitMillis a round ends this long after it started, moves or not
+     * @param gapMillis pause between the end of a round and the next one
+     */
+    public record RoundTimings(long startDelayMillis, long timeLimitMillis, long gapMillis) {
+    }
     
     private final String roomId;
     private final Set<PlayerConnection> players;
-    private final Map<String, Object> gameState;
+    private final Set<PlayerConnection> playersView;
+    private final Set<String> suspendedPlayers;
+    private final Object seatLock = new Object();
+    private final RoundSeats seats;
+    private final SerialExecutor mailbox;
+    private final TimerService timers;
+    private final RoundTimings timings;
+    private final BiConsumer<String, RoundResult> roundResults;
+    // Written by the mailbox only; replaced, never modified, so readers need no lock
+    private volatile List<RoundResult> roundHistory = List.of();
     private volatile boolean gameInProgress;
     private String currentWord;
+    private int currentTarget;
     private int currentRound;
     private long roundStartTime;
+    // Mailbox only: the pending start of the next round and the running round's time limit
+    private TimerService.Handle nextRoundTimer;
+    private TimerService.Handle roundLimitTimer;
+    // Bumped on cancel, so a timer that already fired into the mailbox is ignored
+    private int timerEpoch;
     
-    public GameRoom(String roomId) {
+    /**
+     * @param roundResults receives the room id and result of every round that ends, on the mailbox
+     */
+    public GameRoom(String roomId, Executor roomPool, TimerService timers, RoundTimings timings,
+            CandidateIndex candidateIndex, BiConsumer<String, RoundResult> roundResults) {
         this.roomId = roomId;
         this.players = ConcurrentHashMap.newKeySet();
-        this.gameState = new ConcurrentHashMap<>();
+        this.playersView = Collections.unmodifiableSet(players);
+        this.suspendedPlayers = ConcurrentHashMap.newKeySet();
+        this.mailbox = new SerialExecutor("room-" + roomId, roomPool);
+        this.seats = new RoundSeats(candidateIndex);
+        this.timers = timers;
+        this.timings = timings;
+        this.roundResults = roundResults;
         this.gameInProgress = false;
         this.currentRound = 0;
     }
@@ -40,45 +96,222 @@ public class GameRoom {
         logger.info("Player added to room {}. Total players: {}", roomId, players.size());
         
         // Auto start game if enough players
-        if (players.size() >= 2 && !gameInProgress) {
-            startNewRound();
-        }
+        mailbox.execute(() -> {
+            seats.seat(player.getPlayerId());
+            if (seatCount() >= 2 && !gameInProgress && nextRoundTimer == null) {
+                scheduleNextRound(timings.startDelayMillis());
+            }
+        });
     }
     
     public void removePlayer(PlayerConnection player) {
         players.remove(player);
         logger.info("Player removed from room {}. Total players: {}", roomId, players.size());
-        
-        // Stop game if not enough players
-        if (players.size() < 2 && gameInProgress) {
-            stopGame();
+        releaseSeat(player.getPlayerId());
+        stopIfTooFewSeats();
+    }
+    
+    /**
+     * Keep the seat of a dropped connection, without touching the round
+     *
+     * @return false if the connection no longer held the seat (already resumed elsewhere)
+     */
+    public boolean suspendPlayer(PlayerConnection player) {
+        synchronized (seatLock) {
+            if (!players.remove(player)) {
+                return false;
+            }
+            suspendedPlayers.add(player.getPlayerId());
+        }
+        logger.info("Seat of {} in room {} suspended", player.getPlayerId(), roomId);
+        return true;
+    }
+    
+    /**
+     * Bind a player's seat to a new connection, replacing a suspended seat or an older connection
+     */
+    public void resumePlayer(PlayerConnection player) {
+        String playerId = player.getPlayerId();
+        synchronized (seatLock) {
+            // Add before removing so the room never looks empty in between
+            players.add(player);
+            suspendedPlayers.remove(playerId);
+            players.removeIf(existing -> existing != player && playerId.equals(existing.getPlayerId()));
+        }
+        mailbox.execute(() -> seats.seat(playerId));
+        logger.info("Player {} resumed in room {}", playerId, roomId);
+    }
+    
+    /**
+     * Release a suspended seat whose grace period ran out
+     *
+     * @return false if the seat was resumed meanwhile
+     */
+    public boolean releaseSuspendedPlayer(String playerId) {
+        if (!suspendedPlayers.remove(playerId)) {
+            return false;
+        }
+        logger.info("Suspended seat of {} in room {} released", playerId, roomId);
+        releaseSeat(playerId);
+        stopIfTooFewSeats();
+        return true;
+    }
+    
+    /**
+     * Free a departed player's seat, unless another connection or a suspended seat still holds the id
+     */
+    private void releaseSeat(String playerId) {
+        mailbox.execute(() -> {
+            if (holdsSeat(playerId) || !seats.release(playerId)) {
+                return;
+            }
+            // The players left may all have finished already
+            if (gameInProgress && seats.allCompleted()) {
+                endCurrentRound();
+            }
+        });
+    }
+    
+    private boolean holdsSeat(String playerId) {
+        if (suspendedPlayers.contains(playerId)) {
+            return true;
+        }
+        for (PlayerConnection player : players) {
+            if (playerId.equals(player.getPlayerId())) {
+                return true;
+            }
         }
+        return false;
+    }
+    
+    private void stopIfTooFewSeats() {
+        // Stop game if not enough players; this also cancels a round waiting to start
+        mailbox.execute(() -> {
+            if (seatCount() < 2) {
+                cancelTimers();
+                if (gameInProgress) {
+                    stopGame();
+                }
+            }
+        });
     }
     
+    /**
+     * Start a round after {@code delayMillis}, if the room still has two seats then (mailbox only)
+     */
+    private void scheduleNextRound(long delayMillis) {
+        if (delayMillis <= 0) {
+            startNewRound();
+            return;
+        }
+        int epoch = timerEpoch;
+        nextRoundTimer = timers.schedule(() -> mailbox.execute(() -> {
+            if (epoch != timerEpoch) {
+                return;
+            }
+            nextRoundTimer = null;
+            if (seatCount() >= 2 && !gameInProgress) {
+                startNewRound();
+            }
+        }), delayMillis);
+    }
+    
+    /**
+     * End the round when its time limit passes, even if nobody is moving (mailbox only)
+     */
+    private void scheduleRoundLimit() {
+        int epoch = timerEpoch;
+        roundLimitTimer = timers.schedule(() -> mailbox.execute(() -> {
+            if (epoch == timerEpoch && gameInProgress) {
+                logger.info("Round {} in room {} reached its time limit", currentRound, roomId);
+                endCurrentRound();
+            }
+        }), timings.timeLimitMillis());
+    }
+    
+    private void cancelTimers() {
+        timerEpoch++;
+        if (nextRoundTimer != null) {
+            nextRoundTimer.cancel();
+            nextRoundTimer = null;
+        }
+        if (roundLimitTimer != null) {
+            roundLimitTimer.cancel();
+            roundLimitTimer = null;
+        }
+    }
+    
+    /**
+     * Connected players plus suspended seats
+     */
+    private int seatCount() {
+        return players.size() + suspendedPlayers.size();
+    }
+    
+    public String getRoomId() {
+        return roomId;
+    }
+    
+    /**
+     * Live read-only view of the players; safe to iterate while others join or leave
+     */
     public Set<PlayerConnection> getPlayers() {
-        return new HashSet<>(players);
+        return playersView;
     }
     
     public boolean isEmpty() {
-        return players.isEmpty();
+        return players.isEmpty() && suspendedPlayers.isEmpty();
+    }
+    
+    public int getSuspendedCount() {
+        return suspendedPlayers.size();
+    }
+    
+    /**
+     * Tasks waiting in the room's mailbox
+     */
+    public int getPendingTasks() {
+        return mailbox.getPendingTasks();
+    }
+    
+    /**
+     * Words each player still has to choose from this round, read in the mailbox
+     */
+    public CompletableFuture<Map<String, Integer>> getWordsRemaining() {
+        CompletableFuture<Map<String, Integer>> result = new CompletableFuture<>();
+        mailbox.execute(() -> result.complete(seats.toWordsRemaining()));
+        return result;
+    }
+    
+    /**
+     * Queue a move for the room's mailbox
+     */
+    public void processGameMove(PlayerConnection player, GameMoveMessage move) {
+        mailbox.execute(() -> applyGameMove(player, move));
     }
     
-    public void processGameMove(PlayerConnection player, GameMessage message) {
+    private void applyGameMove(PlayerConnection player, GameMoveMessage move) {
         if (!gameInProgress) {
             return;
         }
         
         // Process word submission
-        String submittedWord = (String) message.getData();
-        if (submittedWord != null && submittedWord.length() == 5) {
-            // Validate and score the word
-            Map<String, Object> result = validateWord(submittedWord);
+        int guess = WordleScorer.pack(move.word());
+        if (guess >= 0) {
+            // Score the word; colors are only spelled out if the pattern is sent
+            int pattern = WordleScorer.score(guess, currentTarget);
             
-            // Update game state
-            updatePlayerScore(player.getPlayerId(), result);
+            // Update the seat's round state
+            int seat = seats.indexOf(player.getPlayerId());
+            if (seat < 0) {
+                return;
+            }
+            seats.recordAttempt(seat, guess, pattern, System.currentTimeMillis() - roundStartTime);
             
-            // Check if round should end
-            checkRoundCompletion();
+            // End round once everyone is done; the time limit is a timer of its own
+            if (seats.allCompleted()) {
+                endCurrentRound();
+            }
         }
     }
     
@@ -89,180 +322,60 @@ public class GameRoom {
         
         // Generate random word for this round
         currentWord = generateRandomWord();
+        currentTarget = WordleScorer.pack(currentWord);
+        scheduleRoundLimit();
         
         logger.info("Started round {} in room {} with word: {}", currentRound, roomId, currentWord);
         
         // Initialize player scores for this round
-        for (PlayerConnection player : players) {
-            gameState.put(player.getPlayerId() + "_attempts", 0);
-            gameState.put(player.getPlayerId() + "_completed", false);
-        }
+        seats.resetRound();
     }
     
     private void stopGame() {
         gameInProgress = false;
         currentRound = 0;
-        gameState.clear();
+        seats.resetRound();
         logger.info("Game stopped in room {}", roomId);
     }
     
-    private Map<String, Object> validateWord(String word) {
-        Map<String, Object> result = new HashMap<>();
-        
-        if (currentWord == null) {
-            result.put("valid", false);
-            return result;
-        }
-        
-        // Check each letter
-        char[] wordChars = word.toUpperCase().toCharArray();
-        char[] targetChars = currentWord.toUpperCase().toCharArray();
-        String[] colors = new String[5];
+    private void endCurrentRound() {
+        gameInProgress = false;
+        cancelTimers();
         
-        // First pass: exact matches
-        boolean[] used = new boolean[5];
-        for (int i = 0; i < 5; i++) {
-            if (wordChars[i] == targetChars[i]) {
-                colors[i] = "green";
-                used[i] = true;
-            }
-        }
+        // Snapshot the seats once; the same result is sent to everyone and kept
+        RoundResult result = seats.snapshot(currentRound, currentWord, System.currentTimeMillis());
+        appendRoundHistory(result);
         
-        // Second pass: wrong position
-        for (int i = 0; i < 5; i++) {
-            if (colors[i] == null) {
-                boolean found = false;
-                for (int j = 0; j < 5; j++) {
-                    if (!used[j] && wordChars[i] == targetChars[j]) {
-                        colors[i] = "yellow";
-                        used[j] = true;
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    colors[i] = "gray";
-                }
-            }
+        logger.info("Round {} ended in room {}", currentRound, roomId);
+        try {
+            roundResults.accept(roomId, result);
+        } catch (RuntimeException e) {
+            logger.error("Error publishing result of round {} in room {}", currentRound, roomId, e);
         }
         
-        result.put("valid", true);
-        result.put("colors", colors);
-        result.put("isCorrect", word.equalsIgnoreCase(currentWord));
-        
-        return result;
+        // Start next round after the gap
+        scheduleNextRound(timings.gapMillis());
     }
     
-    private void updatePlayerScore(String playerId, Map<String, Object> result) {
-        int attempts = (int) gameState.getOrDefault(playerId + "_attempts", 0);
-        attempts++;
-        gameState.put(playerId + "_attempts", attempts);
-        
-        if ((boolean) result.get("isCorrect")) {
-            gameState.put(playerId + "_completed", true);
-            gameState.put(playerId + "_completionTime", System.currentTimeMillis() - roundStartTime);
-        }
-    }
-    
-    private void checkRoundCompletion() {
-        boolean allCompleted = true;
-        long maxTime = 300000; // 5 minutes
-        
-        for (PlayerConnection player : players) {
-            boolean completed = (boolean) gameState.getOrDefault(player.getPlayerId() + "_completed", false);
-            if (!completed) {
-                allCompleted = false;
-                break;
-            }
-        }
-        
-        // End round if all completed or time expired
-        if (allCompleted || (System.currentTimeMillis() - roundStartTime) > maxTime) {
-            endCurrentRound();
-        }
+    private void appendRoundHistory(RoundResult result) {
+        List<RoundResult> previous = roundHistory;
+        List<RoundResult> next = new ArrayList<>(Math.min(previous.size() + 1, MAX_ROUND_HISTORY));
+        next.addAll(previous.subList(Math.max(0, previous.size() + 1 - MAX_ROUND_HISTORY), previous.size()));
+        next.add(result);
+        roundHistory = Collections.unmodifiableList(next);
     }
     
-    private void endCurrentRound() {
-        gameInProgress = false;
-        
-        // Calculate scores and prepare results
-        Map<String, Object> roundResults = new HashMap<>();
-        roundResults.put("roundNumber", currentRound);
-        roundResults.put("correctWord", currentWord);
-        roundResults.put("playerResults", gameState);
-        
-        logger.info("Round {} ended in room {}", currentRound, roomId);
-        
-        // Start next round after delay
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                if (players.size() >= 2) {
-                    startNewRound();
-                }
-            }
-        }, 5000); // 5 second delay
+    /**
+     * Results of the room's most recent rounds, oldest first
+     */
+    public List<RoundResult> getRoundHistory() {
+        return roundHistory;
     }
     
     private String generateRandomWord() {
-        String[] words = {
-            "ABOUT", "ABOVE", "ABUSE", "ACTOR", "ACUTE", "ADMIT", "ADOPT", "ADULT", "AFTER", "AGAIN",
-            "AGENT", "AGREE", "AHEAD", "ALARM", "ALBUM", "ALERT", "ALIEN", "ALIGN", "ALIKE", "ALIVE",
-            "ALLOW", "ALONE", "ALONG", "ALTER", "ANGEL", "ANGER", "ANGLE", "ANGRY", "APART", "APPLE",
-            "APPLY", "ARENA", "ARGUE", "ARISE", "ARRAY", "ARROW", "ASIDE", "ASSET", "ATLAS", "AUDIO",
-            "AUDIT", "AVOID", "AWAKE", "AWARD", "AWARE", "BADLY", "BAKER", "BANDS", "BASIC", "BATCH",
-            "BEACH", "BEGAN", "BEGIN", "BEING", "BELOW", "BENCH", "BILLY", "BIRTH", "BLACK", "BLAME",
-            "BLANK", "BLIND", "BLOCK", "BLOOD", "BOARD", "BOOST", "BOOTH", "BOUND", "BRAIN", "BRAND",
-            "BRASS", "BRAVE", "BREAD", "BREAK", "BREED", "BRIEF", "BRING", "BROAD", "BROKE", "BROWN",
-            "BUILD", "BUILT", "BUYER", "CABLE", "CARRY", "CATCH", "CAUSE", "CHAIN", "CHAIR", "CHAOS",
-            "CHARM", "CHART", "CHASE", "CHEAP", "CHECK", "CHEST", "CHILD", "CHINA", "CHOSE", "CIVIL",
-            "CLAIM", "CLASS", "CLEAN", "CLEAR", "CLICK", "CLIMB", "CLOCK", "CLOSE", "CLOUD", "COACH",
-            "COAST", "COULD", "COUNT", "COURT", "COVER", "CRASH", "CRAZY", "CREAM", "CRIME", "CROSS",
-            "CROWD", "CROWN", "CRUDE", "CURVE", "CYCLE", "DAILY", "DANCE", "DATED", "DEALT", "DEATH",
-            "DEBUT", "DELAY", "DEPTH", "DOING", "DOUBT", "DOZEN", "DRAFT", "DRAMA", "DRANK", "DRAWN",
-            "DREAM", "DRESS", "DRILL", "DRINK", "DRIVE", "DROVE", "DYING", "EAGER", "EARLY", "EARTH",
-            "EIGHT", "ELITE", "EMPTY", "ENEMY", "ENJOY", "ENTER", "ENTRY", "EQUAL", "ERROR", "EVENT",
-            "EVERY", "EXACT", "EXIST", "EXTRA", "FAITH", "FALSE", "FAULT", "FIBER", "FIELD", "FIFTH",
-            "FIFTY", "FIGHT", "FINAL", "FIRST", "FIXED", "FLASH", "FLEET", "FLOOR", "FLUID", "FOCUS",
-            "FORCE", "FORTH", "FORTY", "FORUM", "FOUND", "FRAME", "FRANK", "FRAUD", "FRESH", "FRONT",
-            "FRUIT", "FULLY", "FUNNY", "GIANT", "GIVEN", "GLASS", "GLOBE", "GOING", "GRACE", "GRADE",
-            "GRAND", "GRANT", "GRASS", "GRAVE", "GREAT", "GREEN", "GROSS", "GROUP", "GROWN", "GUARD",
-            "GUESS", "GUEST", "GUIDE", "HAPPY", "HARRY", "HEART", "HEAVY", "HENCE", "HENRY", "HORSE",
-            "HOTEL", "HOUSE", "HUMAN", "IDEAL", "IMAGE", "INDEX", "INNER", "INPUT", "ISSUE", "JAPAN",
-            "JIMMY", "JOINT", "JONES", "JUDGE", "KNOWN", "LABEL", "LARGE", "LASER", "LATER", "LAUGH",
-            "LAYER", "LEARN", "LEASE", "LEAST", "LEAVE", "LEGAL", "LEVEL", "LEWIS", "LIGHT", "LIMIT",
-            "LINKS", "LIVES", "LOCAL", "LOOSE", "LOWER", "LUCKY", "LUNCH", "LYING", "MAGIC", "MAJOR",
-            "MAKER", "MARCH", "MARIA", "MATCH", "MAYBE", "MAYOR", "MEANT", "MEDIA", "METAL", "MIGHT",
-            "MINOR", "MINUS", "MIXED", "MODEL", "MONEY", "MONTH", "MORAL", "MOTOR", "MOUNT", "MOUSE",
-            "MOUTH", "MOVED", "MOVIE", "MUSIC", "NEEDS", "NEVER", "NEWLY", "NIGHT", "NOISE", "NORTH",
-            "NOTED", "NOVEL", "NURSE", "OCCUR", "OCEAN", "OFFER", "OFTEN", "ORDER", "OTHER", "OUGHT",
-            "PAINT", "PANEL", "PAPER", "PARTY", "PEACE", "PETER", "PHASE", "PHONE", "PHOTO", "PIANO",
-            "PIECE", "PILOT", "PITCH", "PLACE", "PLAIN", "PLANE", "PLANT", "PLATE", "POINT", "POUND",
-            "POWER", "PRESS", "PRICE", "PRIDE", "Prime", "PRINT", "PRIOR", "PRIZE", "PROOF", "PROUD",
-            "PROVE", "QUEEN", "QUICK", "QUIET", "QUITE", "RADIO", "RAISE", "RANGE", "RAPID", "RATIO",
-            "REACH", "READY", "REALM", "REBEL", "REFER", "RELAX", "RELAY", "REPLY", "RIGHT", "RIVAL",
-            "RIVER", "ROBIN", "ROGER", "ROMAN", "ROUGH", "ROUND", "ROUTE", "ROYAL", "RURAL", "SCALE",
-            "SCENE", "SCOPE", "SCORE", "SENSE", "SERVE", "SEVEN", "SHALL", "SHAPE", "SHARE", "SHARP",
-            "SHEET", "SHELF", "SHELL", "SHIFT", "SHINE", "SHIRT", "SHOCK", "SHOOT", "SHORT", "SHOWN",
-            "SIGHT", "SILLY", "SINCE", "SIXTH", "SIXTY", "SIZED", "SKILL", "SLEEP", "SLIDE", "SMALL",
-            "SMART", "SMILE", "SMITH", "SMOKE", "SNAKE", "SNOW", "SOLID", "SOLVE", "SORRY", "SOUND",
-            "SOUTH", "SPACE", "SPARE", "SPEAK", "SPEED", "SPEND", "SPENT", "SPLIT", "SPOKE", "SPORT",
-            "STAFF", "STAGE", "STAKE", "STAND", "START", "STATE", "STEAM", "STEEL", "STICK", "STILL",
-            "STOCK", "STONE", "STOOD", "STORE", "STORM", "STORY", "STRIP", "STUCK", "STUDY", "STUFF",
-            "STYLE", "SUGAR", "SUITE", "SUPER", "SWEET", "TABLE", "TAKEN", "TASTE", "TAXES", "TEACH",
-            "TEETH", "TERRY", "TEXAS", "THANK", "THEFT", "THEIR", "THEME", "THERE", "THESE", "THICK",
-            "THING", "THINK", "THIRD", "THOSE", "THREE", "THREW", "THROW", "THUMB", "TIGER", "TIGHT",
-            "TIMER", "TIRED", "TITLE", "TODAY", "TOPIC", "TOTAL", "TOUCH", "TOUGH", "TOWER", "TRACK",
-            "TRADE", "TRAIN", "TREAT", "TREND", "TRIAL", "TRIBE", "TRICK", "TRIED", "TRIES", "TRUCK",
-            "TRULY", "TRUNK", "TRUST", "TRUTH", "TWICE", "TWIST", "TYLER", "UNCLE", "UNDER", "UNDUE",
-            "UNION", "UNITY", "UNTIL", "UPPER", "UPSET", "URBAN", "USAGE", "USUAL", "VALID", "VALUE",
-            "VIDEO", "VIRUS", "VISIT", "VITAL", "VOCAL", "VOICE", "WASTE", "WATCH", "WATER", "WHEEL",
-            "WHERE", "WHICH", "WHILE", "WHITE", "WHOLE", "WHOSE", "WOMAN", "WOMEN", "WORLD", "WORRY",
-            "WORSE", "WORST", "WORTH", "WOULD", "WRITE", "WRONG", "WROTE", "YOUNG", "YOUTH"
-        };
+        List<String> words = WordleWords.answers();
         
         Random random = new Random();
-        return words[random.nextInt(words.length)];
+        return words.get(random.nextInt(words.size()));
     }
 }
@@ -0,0 +1,12 @@
+package com.wordle.game.network;
+
+/**
+ * HEARTBEAT: connection liveness only
+ */
+public record HeartbeatMessage(long timestamp) implements ClientMessage {
+
+    @Override
+    public MessageType type() {
+        return MessageType.HEARTBEAT;
+    }
+}
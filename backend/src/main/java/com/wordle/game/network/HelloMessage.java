@@ -0,0 +1,14 @@
+package com.wordle.game.network;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * HELLO: protocol negotiation, the requested protocol is in {@code content}
+ */
+public record HelloMessage(@JsonProperty("content") String protocol) implements ClientMessage {
+
+    @Override
+    public MessageType type() {
+        return MessageType.HELLO;
+    }
+}
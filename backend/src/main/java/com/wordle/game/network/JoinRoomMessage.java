@@ -0,0 +1,12 @@
+package com.wordle.game.network;
+
+/**
+ * JOIN_ROOM: {"type":"JOIN_ROOM","roomId":"...","playerId":"..."}
+ */
+public record JoinRoomMessage(String roomId, String playerId, long timestamp) implements ClientMessage {
+
+    @Override
+    public MessageType type() {
+        return MessageType.JOIN_ROOM;
+    }
+}
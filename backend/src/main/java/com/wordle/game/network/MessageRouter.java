@@ -0,0 +1,122 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Table-driven decode and dispatch for inbound TCP messages
+ * Áp dụng kiến thức: Dispatch Table, Typed Deserialization, Reader Caching
+ *
+ * Routes are stored in an array indexed by {@link MessageType#ordinal()}. Each
+ * route owns an ObjectReader built once for its record type, so a frame is
+ * decoded straight into the typed message without an intermediate tree.
+ * A frame is parsed once: the fields ahead of "type" are kept as tokens
+ * and replayed to the reader, which then reads the rest from the parser.
+ */
+public class MessageRouter {
+
+    /**
+     * Handler for one message type
+     */
+    @FunctionalInterface
+    public interface Handler<T extends ClientMessage> {
+        void handle(PlayerConnection connection, T message);
+    }
+
+    private static final class Route<T extends ClientMessage> {
+        private final Class<T> messageClass;
+        private final ObjectReader reader;
+        private final Handler<? super T> handler;
+
+        private Route(Class<T> messageClass, ObjectReader reader, Handler<? super T> handler) {
+            this.messageClass = messageClass;
+            this.reader = reader;
+            this.handler = handler;
+        }
+
+        private void dispatch(PlayerConnection connection, ClientMessage message) {
+            handler.handle(connection, messageClass.cast(message));
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final Route<?>[] routes = new Route<?>[MessageType.values().length];
+
+    public MessageRouter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public <T extends ClientMessage> void register(MessageType type, Class<T> messageClass, Handler<? super T> handler) {
+        ObjectReader reader = objectMapper.readerFor(messageClass)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        routes[type.ordinal()] = new Route<>(messageClass, reader, handler);
+    }
+
+    /**
+     * Decode a JSON frame into its typed message
+     *
+     * @return the message, or null if its type has no route
+     */
+    public ClientMessage decodeJson(ByteBuffer frame) throws IOException {
+        try (JsonParser parser = newParser(frame)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            TokenBuffer ahead = new TokenBuffer(parser);
+            ahead.copyCurrentEvent(parser);
+            MessageType type = MessageType.OTHER;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                ahead.copyCurrentEvent(parser);
+                JsonToken value = parser.nextToken();
+                ahead.copyCurrentStructure(parser);
+                if ("type".equals(field)) {
+                    type = value == JsonToken.VALUE_STRING ? MessageType.fromName(parser.getText()) : MessageType.OTHER;
+                    break;
+                }
+            }
+
+            Route<?> route = routes[type.ordinal()];
+            if (route == null) {
+                return null;
+            }
+            try (JsonParser replay = JsonParserSequence.createFlattened(false, ahead.asParser(), parser)) {
+                return route.reader.readValue(replay);
+            }
+        }
+    }
+
+    /**
+     * Hand a decoded message to its handler
+     *
+     * @return false if no handler is registered for the message type
+     */
+    public boolean dispatch(PlayerConnection connection, ClientMessage message) {
+        Route<?> route = routes[message.type().ordinal()];
+        if (route == null) {
+            return false;
+        }
+        route.dispatch(connection, message);
+        return true;
+    }
+
+    private JsonParser newParser(ByteBuffer frame) throws IOException {
+        JsonParser parser = jsonFactory.createNonBlockingByteBufferParser();
+        ByteBufferFeeder feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        feeder.feedInput(frame);
+        feeder.endOfInput();
+        return parser;
+    }
+}
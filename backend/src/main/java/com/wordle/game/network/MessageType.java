@@ -0,0 +1,61 @@
+package com.wordle.game.network;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TCP Message Types with their one-byte binary codes
+ * Áp dụng kiến thức: Protocol Design, Compact Encoding
+ */
+public enum MessageType {
+    /** Any type name this server does not know; the binary form carries the name inline */
+    OTHER(0),
+    JOIN_ROOM(1),
+    GAME_MOVE(2),
+    CHAT_MESSAGE(3),
+    HEARTBEAT(4),
+    HEARTBEAT_ACK(5),
+    SYSTEM_MESSAGE(6),
+    HELLO(7),
+    HELLO_ACK(8),
+    ID_ASSIGN(9),
+    RESUME(10),
+    RESUME_TOKEN(11),
+    RESUME_FAILED(12),
+    /** Server to client: every chat line of a room from one batching tick */
+    CHAT_BATCH(13),
+    /** Server to client: the results of a round that just ended */
+    ROUND_RESULT(14),
+    /** Client asks for its room's recent ROUND_RESULTs; the reply has the same type */
+    ROUND_HISTORY(15);
+
+    private static final MessageType[] BY_CODE = new MessageType[256];
+    private static final Map<String, MessageType> BY_NAME = new HashMap<>();
+
+    static {
+        for (MessageType type : values()) {
+            BY_CODE[type.code] = type;
+            BY_NAME.put(type.name(), type);
+        }
+    }
+
+    private final int code;
+
+    MessageType(int code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return (byte) code;
+    }
+
+    public static MessageType fromCode(byte code) {
+        MessageType type = BY_CODE[code & 0xFF];
+        return type != null ? type : OTHER;
+    }
+
+    public static MessageType fromName(String name) {
+        MessageType type = name != null ? BY_NAME.get(name) : null;
+        return type != null ? type : OTHER;
+    }
+}
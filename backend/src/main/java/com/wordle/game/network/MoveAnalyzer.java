@@ -0,0 +1,295 @@
+package com.wordle.game.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Phân tích nước đi bằng entropy
+ * Áp dụng kiến thức: Information Theory, Fork/Join Parallelism, Divide and Conquer
+ *
+ * Keeps the answers still possible for a player as a {@link CandidateIndex}
+ * bitset, narrowed by each move, and measures a guess by its expected
+ * information: the entropy, in bits,
+ * of the feedback patterns it would produce over those candidates. Ranking
+ * every allowed guess for the next move is the expensive part, so the
+ * guess list is split into ranges scored on a fork-join pool, each keeping
+ * its own top N and histogram; the partial rankings are merged on the way up.
+ *
+ * Patterns come from the {@link FeedbackMatrix} when it is available and
+ * from {@link WordleScorer} otherwise. Instances are immutable and safe to
+ * share between threads.
+ */
+public class MoveAnalyzer {
+
+    /** Guesses scored by one fork-join leaf */
+    private static final int LEAF_GUESSES = 256;
+    /** Remaining words listed in full up to this many */
+    private static final int MAX_LISTED_CANDIDATES = 20;
+
+    /**
+     * A ranked next guess
+     *
+     * @param candidate true if the guess could itself be the answer
+     */
+    public record Suggestion(String word, double entropy, boolean candidate) {
+    }
+
+    /**
+     * @param candidatesBefore answers possible before this guess
+     * @param candidatesRemaining answers still possible after its feedback
+     * @param entropy expected information of this guess, in bits
+     * @param informationGained information its actual feedback gave, in bits
+     * @param remainingWords the remaining answers, if there are few enough to list
+     */
+    public record Analysis(int candidatesBefore, int candidatesRemaining, double entropy, double informationGained,
+            List<Suggestion> topGuesses, List<String> remainingWords) {
+    }
+
+    private final List<String> guesses;
+    private final List<String> answers;
+    private final int[] packedGuesses;
+    private final int[] packedAnswers;
+    /** Answer index of each guess, or -1 */
+    private final int[] guessAnswers;
+    private final Map<Integer, Integer> guessIndexes = new HashMap<>();
+    /** c * log2(c) for every count a pattern can reach, so scoring a guess takes no logarithms */
+    private final double[] countLogCounts;
+    private final CandidateIndex candidateIndex;
+    private final FeedbackMatrix matrix;
+    private final ForkJoinPool pool;
+    private final int topN;
+
+    /**
+     * @param matrix patterns of exactly these guesses and answers, or null to score on demand
+     */
+    public MoveAnalyzer(List<String> guesses, List<String> answers, FeedbackMatrix matrix, ForkJoinPool pool, int topN) {
+        this.guesses = List.copyOf(guesses);
+        this.answers = List.copyOf(answers);
+        this.packedGuesses = new int[guesses.size()];
+        this.packedAnswers = new int[answers.size()];
+        this.guessAnswers = new int[guesses.size()];
+        Map<Integer, Integer> answerIndexes = new HashMap<>();
+        for (int i = 0; i < packedAnswers.length; i++) {
+            packedAnswers[i] = WordleScorer.pack(answers.get(i));
+            answerIndexes.put(packedAnswers[i], i);
+        }
+        for (int i = 0; i < packedGuesses.length; i++) {
+            packedGuesses[i] = WordleScorer.pack(guesses.get(i));
+            guessIndexes.put(packedGuesses[i], i);
+            guessAnswers[i] = answerIndexes.getOrDefault(packedGuesses[i], -1);
+        }
+        this.candidateIndex = new CandidateIndex(answers);
+        this.countLogCounts = new double[answers.size() + 1];
+        for (int count = 2; count < countLogCounts.length; count++) {
+            countLogCounts[count] = count * log2(count);
+        }
+        boolean matching = matrix != null && matrix.getGuessCount() == guesses.size()
+                && matrix.getAnswerCount() == answers.size();
+        this.matrix = matching ? matrix : null;
+        this.pool = pool;
+        this.topN = Math.max(0, topN);
+    }
+
+    /**
+     * A candidate set for a new game: every answer
+     */
+    public long[] newCandidateSet() {
+        return candidateIndex.newFullSet();
+    }
+
+    /**
+     * Analyze {@code guess} (packed), which got {@code pattern}, and narrow
+     * {@code candidates} by it in place. A set that earlier feedback emptied
+     * (feedback no answer fits) starts over from every answer.
+     */
+    public Analysis analyze(long[] candidates, int guess, int pattern) {
+        int[] before = indexes(candidates);
+        if (before.length == 0) {
+            candidateIndex.fill(candidates);
+            before = indexes(candidates);
+        }
+        double entropy = entropy(guess, before, new int[WordleScorer.PATTERN_COUNT]);
+        candidateIndex.narrow(candidates, guess, pattern);
+        int[] after = indexes(candidates);
+
+        double gained = after.length > 0 ? log2(before.length) - log2(after.length) : 0;
+        List<String> remainingWords = new ArrayList<>();
+        if (after.length <= MAX_LISTED_CANDIDATES) {
+            for (int answer : after) {
+                remainingWords.add(answers.get(answer));
+            }
+        }
+        return new Analysis(before.length, after.length, entropy, gained, rankGuesses(after), remainingWords);
+    }
+
+    /**
+     * Answer indexes of a candidate set, ascending
+     */
+    private static int[] indexes(long[] candidates) {
+        int[] indexes = new int[CandidateIndex.count(candidates)];
+        int count = 0;
+        for (int w = 0; w < candidates.length; w++) {
+            long word = candidates[w];
+            while (word != 0) {
+                indexes[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Expected information of a guess over the candidates: the entropy of its pattern distribution
+     */
+    private double entropy(int guess, int[] candidates, int[] histogram) {
+        return entropy(guessIndex(guess), guess, candidates, histogram);
+    }
+
+    private double entropy(int guessIndex, int guess, int[] candidates, int[] histogram) {
+        if (candidates.length <= 1) {
+            return 0;
+        }
+        Arrays.fill(histogram, 0);
+        for (int answer : candidates) {
+            histogram[pattern(guessIndex, guess, answer)]++;
+        }
+        // H = log2(n) - (1/n) * sum(c * log2(c))
+        double weighted = 0;
+        for (int count : histogram) {
+            weighted += countLogCounts[count];
+        }
+        return log2(candidates.length) - weighted / candidates.length;
+    }
+
+    private int pattern(int guessIndex, int guess, int answer) {
+        if (guessIndex >= 0 && matrix != null) {
+            return matrix.pattern(guessIndex, answer);
+        }
+        return WordleScorer.score(guess, packedAnswers[answer]);
+    }
+
+    private int guessIndex(int guess) {
+        Integer index = guessIndexes.get(guess);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Top guesses against the remaining candidates, scored in parallel
+     */
+    private List<Suggestion> rankGuesses(int[] candidates) {
+        if (topN == 0 || candidates.length == 0) {
+            return List.of();
+        }
+        if (candidates.length <= 2) {
+            // Nothing beats guessing a remaining answer: it splits them and may win outright
+            List<Suggestion> suggestions = new ArrayList<>();
+            for (int i = 0; i < candidates.length && i < topN; i++) {
+                suggestions.add(new Suggestion(answers.get(candidates[i]), candidates.length - 1, true));
+            }
+            return suggestions;
+        }
+        boolean[] isCandidate = new boolean[packedAnswers.length];
+        for (int answer : candidates) {
+            isCandidate[answer] = true;
+        }
+        Ranking ranking = pool.invoke(new RankTask(candidates, isCandidate, 0, packedGuesses.length));
+        List<Suggestion> suggestions = new ArrayList<>(ranking.size);
+        for (int i = 0; i < ranking.size; i++) {
+            int guessIndex = ranking.guessIndexes[i];
+            suggestions.add(new Suggestion(guesses.get(guessIndex), ranking.entropies[i], ranking.candidates[i]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Best {@code topN} guesses of a range, best first
+     */
+    private final class Ranking {
+        private final int[] guessIndexes = new int[topN];
+        private final double[] entropies = new double[topN];
+        private final boolean[] candidates = new boolean[topN];
+        private int size;
+
+        private void offer(int guessIndex, double entropy, boolean candidate) {
+            int position = size;
+            while (position > 0 && better(entropy, candidate, guessIndex, position - 1)) {
+                position--;
+            }
+            if (position >= topN) {
+                return;
+            }
+            int moved = Math.min(size, topN - 1) - position;
+            System.arraycopy(guessIndexes, position, guessIndexes, position + 1, moved);
+            System.arraycopy(entropies, position, entropies, position + 1, moved);
+            System.arraycopy(candidates, position, candidates, position + 1, moved);
+            guessIndexes[position] = guessIndex;
+            entropies[position] = entropy;
+            candidates[position] = candidate;
+            size = Math.min(size + 1, topN);
+        }
+
+        /**
+         * Higher entropy first; on a tie a possible answer, then the earlier guess
+         */
+        private boolean better(double entropy, boolean candidate, int guessIndex, int rank) {
+            if (entropy != entropies[rank]) {
+                return entropy > entropies[rank];
+            }
+            if (candidate != candidates[rank]) {
+                return candidate;
+            }
+            return guessIndex < guessIndexes[rank];
+        }
+
+        private Ranking merge(Ranking other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.guessIndexes[i], other.entropies[i], other.candidates[i]);
+            }
+            return this;
+        }
+    }
+
+    private final class RankTask extends RecursiveTask<Ranking> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] remaining;
+        private final boolean[] isCandidate;
+        private final int from;
+        private final int to;
+
+        private RankTask(int[] remaining, boolean[] isCandidate, int from, int to) {
+            this.remaining = remaining;
+            this.isCandidate = isCandidate;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Ranking compute() {
+            if (to - from <= LEAF_GUESSES) {
+                Ranking ranking = new Ranking();
+                int[] histogram = new int[WordleScorer.PATTERN_COUNT];
+                for (int guessIndex = from; guessIndex < to; guessIndex++) {
+                    double entropy = entropy(guessIndex, packedGuesses[guessIndex], remaining, histogram);
+                    int answer = guessAnswers[guessIndex];
+                    ranking.offer(guessIndex, entropy, answer >= 0 && isCandidate[answer]);
+                }
+                return ranking;
+            }
+            int middle = (from + to) >>> 1;
+            RankTask left = new RankTask(remaining, isCandidate, from, middle);
+            left.fork();
+            Ranking right = new RankTask(remaining, isCandidate, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
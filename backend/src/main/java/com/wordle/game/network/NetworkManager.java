@@ -2,6 +2,7 @@ package com.wordle.game.network;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -9,6 +10,7 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
@@ -23,6 +25,7 @@ import jakarta.annotation.PreDestroy;
 public class NetworkManager {
     
     private static final Logger logger = LoggerFactory.getLogger(NetworkManager.class);
+    private static final long ROOM_QUERY_TIMEOUT_SECONDS = 2;
     
     @Autowired
     private TcpGameServer tcpGameServer;
@@ -30,6 +33,12 @@ public class NetworkManager {
     @Autowired
     private UdpStatsServer udpStatsServer;
     
+    @Autowired
+    private FeedbackMatrixService feedbackMatrixService;
+    
+    @Value("${server.port:8080}")
+    private int webPort = 8080;
+    
     private ScheduledExecutorService scheduler;
     private volatile boolean isRunning = false;
     
@@ -136,9 +145,9 @@ public class NetworkManager {
      */
     private void logServerInfo() {
         logger.info("=== WORDLE NETWORK ARCHITECTURE ===");
-        logger.info("📡 WebSocket Server (HTTP): Port 8080 - Web client communication");
-        logger.info("🔗 TCP Server (NIO): Port 8081 - Real-time game communication"); 
-        logger.info("📊 UDP Server: Port 8082 - Fast statistics & leaderboard");
+        logger.info("📡 WebSocket Server (HTTP): Port {} - Web client communication", webPort);
+        logger.info("🔗 TCP Server (NIO): Port {} - Real-time game communication", tcpGameServer.getPort());
+        logger.info("📊 UDP Server: Port {} - Fast statistics & leaderboard", udpStatsServer.getPort());
         logger.info("====================================");
         
         logger.info("Network Programming Concepts Applied:");
@@ -160,13 +169,14 @@ public class NetworkManager {
             status.put("isRunning", isRunning);
             status.put("tcpServer", tcpGameServer.getServerStats());
             status.put("udpServer", udpStatsServer.getServerStats());
+            status.put("feedbackMatrix", feedbackMatrixService.getStats());
             status.put("startTime", System.currentTimeMillis());
             
             // Network protocols info
             Map<String, Object> protocols = new HashMap<>();
-            protocols.put("websocket", Map.of("port", 8080, "protocol", "WebSocket/STOMP", "purpose", "Web Client Communication"));
-            protocols.put("tcp", Map.of("port", 8081, "protocol", "TCP/IP with NIO", "purpose", "Real-time Game Communication"));
-            protocols.put("udp", Map.of("port", 8082, "protocol", "UDP", "purpose", "Fast Statistics & Leaderboard"));
+            protocols.put("websocket", Map.of("port", webPort, "protocol", "WebSocket/STOMP", "purpose", "Web Client Communication"));
+            protocols.put("tcp", Map.of("port", tcpGameServer.getPort(), "protocol", "TCP/IP with NIO", "purpose", "Real-time Game Communication"));
+            protocols.put("udp", Map.of("port", udpStatsServer.getPort(), "protocol", "UDP", "purpose", "Fast Statistics & Leaderboard"));
             
             status.put("protocols", protocols);
             
@@ -178,21 +188,44 @@ public class NetworkManager {
         return status;
     }
     
+    public int getWebPort() {
+        return webPort;
+    }
+    
+    public int getTcpPort() {
+        return tcpGameServer.getPort();
+    }
+    
+    public int getUdpPort() {
+        return udpStatsServer.getPort();
+    }
+    
     /**
-     * Restart network services
+     * Words each player in a room still has to choose from, as spectators see it
+     *
+     * @return null if there is no such room
      */
-    public void restartNetworkServices() {
+    public Map<String, Integer> getWordsRemaining(String roomId) throws Exception {
+        CompletableFuture<Map<String, Integer>> remaining = tcpGameServer.getWordsRemaining(roomId);
+        // Answered from the room's mailbox, behind any moves already queued
+        return remaining != null ? remaining.get(ROOM_QUERY_TIMEOUT_SECONDS, TimeUnit.SECONDS) : null;
+    }
+    
+    /**
+     * Restart network services without dropping anyone: the TCP and UDP sockets
+     * are rebound while established connections, rooms and monitoring keep running
+     */
+    public synchronized void restartNetworkServices() {
         logger.info("Restarting network services...");
         
-        try {
-            // Stop all servers
-            stopAllServers();
-            
-            // Wait a moment
-            Thread.sleep(2000);
-            
-            // Restart all servers
+        if (!isRunning) {
             startAllServers();
+            return;
+        }
+        
+        try {
+            tcpGameServer.rebindListeners();
+            udpStatsServer.rebindChannels();
             
             logger.info("Network services restarted successfully");
             
@@ -202,7 +235,7 @@ public class NetworkManager {
     }
     
     /**
-     * Stop all servers gracefully
+     * Stop all servers gracefully; TCP connections get their queued frames flushed first
      */
     @PreDestroy
     public void stopAllServers() {
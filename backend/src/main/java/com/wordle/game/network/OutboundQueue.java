@@ -0,0 +1,205 @@
+package com.wordle.game.network;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Bounded outbound frame ring for one connection
+ * Áp dụng kiến thức: Ring Buffer, Backpressure, Flow Control
+ *
+ * Producers (any thread) offer frames; the owning worker gathers frames from
+ * the head, writes them, then completes the ones fully written. Once depth
+ * reaches the high watermark the connection is congested and the configured
+ * {@link Policy} applies until depth falls back to the low watermark.
+ *
+ * The queue also records the wire format its frames are encoded in. A frame
+ * offered in any other format is refused as {@link Result#STALE}, and
+ * {@link #switchFormat} queues the last frame of the old format and changes
+ * format in one step, so no frame of the old format can land behind it.
+ */
+public class OutboundQueue {
+
+    /**
+     * How much a frame matters to a slow client
+     */
+    public enum Kind {
+        /** System, protocol and result frames: never dropped */
+        CONTROL,
+        /** Game state updates: may be coalesced by key */
+        STATE,
+        /** Chat lines: first to go */
+        CHAT
+    }
+
+    /**
+     * What to do with a congested connection
+     */
+    public enum Policy {
+        /** Drop chat while congested */
+        DROP_CHAT,
+        /** Drop chat and keep only the latest queued state update per key while congested */
+        COALESCE_STATE,
+        /** Close the connection as soon as it becomes congested */
+        DISCONNECT
+    }
+
+    public enum Result {
+        QUEUED,
+        COALESCED,
+        DROPPED,
+        /** The client cannot keep up and the connection should be closed */
+        OVERFLOW,
+        /** Encoded for a wire format the connection has left: encode again and retry */
+        STALE
+    }
+
+    private final ByteBuffer[] frames;
+    private final Kind[] kinds;
+    private final Object[] keys;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final Policy policy;
+
+    private int head;
+    private int size;
+    private int inFlight;
+    private boolean congested;
+    private volatile PlayerConnection.WireFormat format = PlayerConnection.WireFormat.JSON;
+
+    public OutboundQueue(int capacity, int highWatermark, int lowWatermark, Policy policy) {
+        this.frames = new ByteBuffer[capacity];
+        this.kinds = new Kind[capacity];
+        this.keys = new Object[capacity];
+        this.highWatermark = Math.min(highWatermark, capacity);
+        this.lowWatermark = Math.min(lowWatermark, this.highWatermark);
+        this.policy = policy;
+    }
+
+    /**
+     * Queue a frame, applying the backpressure policy
+     *
+     * @param format wire format the frame was encoded in
+     * @param key coalescing key for {@link Kind#STATE} frames, may be null
+     */
+    public synchronized Result offer(ByteBuffer frame, PlayerConnection.WireFormat format, Kind kind, Object key) {
+        if (format != this.format) {
+            return Result.STALE;
+        }
+        return offer(frame, kind, key);
+    }
+
+    /**
+     * Queue {@code lastFrame}, still in the current format, and make {@code next}
+     * the format of everything offered after it
+     */
+    public synchronized Result switchFormat(ByteBuffer lastFrame, PlayerConnection.WireFormat next) {
+        Result result = offer(lastFrame, Kind.CONTROL, null);
+        format = next;
+        return result;
+    }
+
+    public PlayerConnection.WireFormat getFormat() {
+        return format;
+    }
+
+    private Result offer(ByteBuffer frame, Kind kind, Object key) {
+        if (size >= highWatermark) {
+            congested = true;
+        }
+
+        if (congested) {
+            if (policy == Policy.DISCONNECT) {
+                return Result.OVERFLOW;
+            }
+            if (kind == Kind.CHAT) {
+                return Result.DROPPED;
+            }
+            if (kind == Kind.STATE && key != null && policy == Policy.COALESCE_STATE && replaceQueued(frame, key)) {
+                return Result.COALESCED;
+            }
+        }
+
+        if (size == frames.length) {
+            if (kind == Kind.CONTROL) {
+                return Result.OVERFLOW;
+            }
+            return Result.DROPPED;
+        }
+
+        int tail = (head + size) % frames.length;
+        frames[tail] = frame;
+        kinds[tail] = kind;
+        keys[tail] = key;
+        size++;
+        return Result.QUEUED;
+    }
+
+    /**
+     * Swap a queued (not yet in flight) state frame with the same key for the newer one
+     */
+    private boolean replaceQueued(ByteBuffer frame, Object key) {
+        for (int i = inFlight; i < size; i++) {
+            int index = (head + i) % frames.length;
+            if (kinds[index] == Kind.STATE && key.equals(keys[index])) {
+                frames[index] = frame;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy up to {@code target.length} frames from the head for a gathering write.
+     * They stay queued (and cannot be coalesced) until {@link #complete()}.
+     */
+    public synchronized int gather(ByteBuffer[] target) {
+        int count = Math.min(size, target.length);
+        for (int i = 0; i < count; i++) {
+            target[i] = frames[(head + i) % frames.length];
+        }
+        inFlight = count;
+        return count;
+    }
+
+    /**
+     * Remove fully written frames from the head after a write
+     */
+    public synchronized void complete() {
+        while (size > 0 && !frames[head].hasRemaining()) {
+            frames[head] = null;
+            kinds[head] = null;
+            keys[head] = null;
+            head = (head + 1) % frames.length;
+            size--;
+        }
+        inFlight = 0;
+
+        if (congested && size <= lowWatermark) {
+            congested = false;
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isCongested() {
+        return congested;
+    }
+
+    /**
+     * Drop everything still queued (connection closed)
+     */
+    public synchronized void clear() {
+        Arrays.fill(frames, null);
+        Arrays.fill(kinds, null);
+        Arrays.fill(keys, null);
+        head = 0;
+        size = 0;
+        inFlight = 0;
+    }
+}
@@ -3,31 +3,98 @@ package com.wordle.game.network;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Player Connection Management
- * Áp dụng kiến thức: Connection State Management, Buffer Management
+ * Áp dụng kiến thức: Connection State Management, Buffer Management, Gathering I/O
  */
 public class PlayerConnection {
+    
+    /**
+     * Message encoding negotiated for this connection
+     */
+    public enum WireFormat {
+        JSON,
+        BINARY
+    }
+    
+    /** Upper bound on frames handed to a single gathering write */
+    private static final int MAX_GATHER_FRAMES = 64;
+    
     private final SocketChannel channel;
     private String playerId;
     private String currentRoom;
-    private long lastHeartbeat;
-    private final ConcurrentLinkedQueue<String> messageQueue;
-    private ByteBuffer writeBuffer;
+    /** Time of the last inbound frame of any type; written by the reader, read by the loop */
+    private volatile long lastActivity;
+    /** Time of the last server ping (loop only) */
+    private long lastPingSent;
+    private final OutboundQueue outboundQueue;
+    private final ByteBuffer[] gatherBuffers;
+    private final FrameCodec frameCodec;
+    private ConnectionLoop loop;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean closing = new AtomicBoolean();
+    private TimingWheel.Timeout idleTimeout;
+    private TokenBucket[] rateLimits;
+    /** Malformed or unroutable frames received so far (reader only) */
+    private int badFrames;
+    private volatile String resumeToken;
+    private volatile boolean replaced;
+    /** Format of inbound frames; the reader switches it as soon as it handles HELLO */
+    private volatile WireFormat inboundFormat = WireFormat.JSON;
     
-    public PlayerConnection(SocketChannel channel) {
+    public PlayerConnection(SocketChannel channel, FrameCodec frameCodec, OutboundQueue outboundQueue) {
         this.channel = channel;
-        this.lastHeartbeat = System.currentTimeMillis();
-        this.messageQueue = new ConcurrentLinkedQueue<>();
-        this.writeBuffer = ByteBuffer.allocate(1024);
+        this.lastActivity = System.currentTimeMillis();
+        this.outboundQueue = outboundQueue;
+        this.frameCodec = frameCodec;
+        this.gatherBuffers = new ByteBuffer[MAX_GATHER_FRAMES];
     }
     
     public SocketChannel getChannel() {
         return channel;
     }
     
+    public ConnectionLoop getLoop() {
+        return loop;
+    }
+    
+    public void setLoop(ConnectionLoop loop) {
+        this.loop = loop;
+    }
+    
+    /**
+     * Format outbound frames are encoded in
+     */
+    public WireFormat getWireFormat() {
+        return outboundQueue.getFormat();
+    }
+    
+    public WireFormat getInboundFormat() {
+        return inboundFormat;
+    }
+    
+    /**
+     * Read the compact binary protocol from now on; binary frames are always length-prefixed
+     */
+    public void switchInboundToBinary() {
+        this.inboundFormat = WireFormat.BINARY;
+        frameCodec.switchMode(FrameCodec.Mode.LENGTH_PREFIXED);
+    }
+    
+    /**
+     * Queue {@code ack}, the last frame in the old encoding, and send binary from then on
+     */
+    public OutboundQueue.Result switchOutboundToBinary(ByteBuffer ack) {
+        return outboundQueue.switchFormat(ack, WireFormat.BINARY);
+    }
+    
+    public FrameCodec getFrameCodec() {
+        return frameCodec;
+    }
+    
     public String getPlayerId() {
         return playerId;
     }
@@ -44,40 +111,168 @@ public class PlayerConnection {
         this.currentRoom = currentRoom;
     }
     
-    public void updateLastHeartbeat() {
-        this.lastHeartbeat = System.currentTimeMillis();
+    public void updateLastActivity() {
+        this.lastActivity = System.currentTimeMillis();
+    }
+    
+    public long getLastActivity() {
+        return lastActivity;
+    }
+    
+    public long getLastPingSent() {
+        return lastPingSent;
     }
     
-    public long getLastHeartbeat() {
-        return lastHeartbeat;
+    public void setLastPingSent(long lastPingSent) {
+        this.lastPingSent = lastPingSent;
     }
     
-    public void queueMessage(String message) {
-        messageQueue.offer(message);
+    /**
+     * Per message type limits, indexed by {@link MessageType#ordinal()}; null entries are unlimited
+     */
+    public void setRateLimits(TokenBucket[] rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+    
+    /**
+     * Take a token for an inbound message (reader thread only)
+     *
+     * @return false if the message exceeds its type's rate limit
+     */
+    public boolean tryAcquire(MessageType type) {
+        TokenBucket bucket = rateLimits != null ? rateLimits[type.ordinal()] : null;
+        return bucket == null || bucket.tryAcquire();
+    }
+    
+    /**
+     * Count a malformed or unroutable inbound frame (reader thread only)
+     *
+     * @return the connection's total so far
+     */
+    public int recordBadFrame() {
+        return ++badFrames;
+    }
+    
+    public String getResumeToken() {
+        return resumeToken;
+    }
+    
+    public void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+    
+    /**
+     * Mark that a resumed connection took over this one's seat
+     */
+    public void markReplaced() {
+        this.replaced = true;
+    }
+    
+    public boolean isReplaced() {
+        return replaced;
+    }
+    
+    /**
+     * Pending idle check on the loop's timer wheel (loop thread only)
+     */
+    public void setIdleTimeout(TimingWheel.Timeout idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    public void cancelIdleTimeout() {
+        if (idleTimeout != null) {
+            idleTimeout.cancel();
+            idleTimeout = null;
+        }
+    }
+    
+    /**
+     * Queue an already framed message (any size), subject to the backpressure policy
+     *
+     * @param format wire format the frame was encoded in; a stale one is refused
+     */
+    public OutboundQueue.Result queueFrame(ByteBuffer frame, WireFormat format, OutboundQueue.Kind kind, Object coalesceKey) {
+        return outboundQueue.offer(frame, format, kind, coalesceKey);
+    }
+    
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
+    }
+    
+    /**
+     * Claim the pending flush for this connection.
+     *
+     * @return true if the caller should post the flush command, false if one is already queued
+     */
+    public boolean scheduleFlush() {
+        return flushScheduled.compareAndSet(false, true);
+    }
+    
+    /**
+     * Called by the flush command before it writes, so later sends schedule a new one
+     */
+    public void flushStarted() {
+        flushScheduled.set(false);
+    }
+    
+    /**
+     * Mark the connection for closing
+     *
+     * @return true only for the first caller
+     */
+    public boolean markClosing() {
+        return closing.compareAndSet(false, true);
+    }
+    
+    public boolean isClosing() {
+        return closing.get();
     }
     
     public boolean hasDataToWrite() {
-        return !messageQueue.isEmpty() || writeBuffer.hasRemaining();
+        return !outboundQueue.isEmpty();
     }
     
-    public void writeData() throws IOException {
-        // If buffer is empty, load next message
-        if (!writeBuffer.hasRemaining()) {
-            String nextMessage = messageQueue.poll();
-            if (nextMessage != null) {
-                writeBuffer.clear();
-                writeBuffer.put((nextMessage + "\n").getBytes("UTF-8"));
-                writeBuffer.flip();
+    /**
+     * Write as many queued frames as the socket accepts, several per system call.
+     * Must only be called from the connection's loop (or, for a blocking channel, its writer).
+     *
+     * @return true if the queue was fully drained, false if the kernel buffer is full
+     */
+    public boolean writeData() throws IOException {
+        while (true) {
+            int count = outboundQueue.gather(gatherBuffers);
+            if (count == 0) {
+                return true;
+            }
+            long expected = 0;
+            for (int i = 0; i < count; i++) {
+                expected += gatherBuffers[i].remaining();
+            }
+            
+            long written;
+            try {
+                written = channel.write(gatherBuffers, 0, count);
+            } finally {
+                // Drop frames that went out completely; a partial one stays at the head
+                outboundQueue.complete();
+                Arrays.fill(gatherBuffers, 0, count, null);
+            }
+            
+            if (written < expected) {
+                return false;
             }
         }
-        
-        // Write buffer to channel
-        if (writeBuffer.hasRemaining()) {
-            channel.write(writeBuffer);
-        }
     }
     
-    public boolean isConnectionAlive() {
-        return System.currentTimeMillis() - lastHeartbeat < 30000; // 30 seconds timeout
+    /**
+     * Return pooled buffers once the connection is closed
+     */
+    public void releaseBuffers() {
+        frameCodec.release();
+        outboundQueue.clear();
+    }
+    
+    public boolean isConnectionAlive(long idleTimeoutMillis) {
+        return System.currentTimeMillis() - lastActivity < idleTimeoutMillis;
     }
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Player Statistics Management
@@ -18,6 +19,8 @@ public class PlayerStats {
     private long bestTime;
     private final List<GameResult> gameHistory;
     private final Map<String, Integer> letterEfficiency;
+    /** Answers still possible in the game in progress, or null before its first move */
+    private long[] currentCandidates;
     
     public PlayerStats(String playerId) {
         this.playerId = playerId;
@@ -48,18 +51,37 @@ public class PlayerStats {
         if (gameHistory.size() > 100) {
             gameHistory.remove(0);
         }
+        clearCurrentCandidates();
     }
     
-    public void addMove(String word, String[] colors) {
-        // Track letter efficiency
-        for (int i = 0; i < word.length() && i < colors.length; i++) {
-            char letter = word.charAt(i);
-            String color = colors[i];
+    /**
+     * Track letter efficiency of a move scored as a {@link WordleScorer} pattern
+     */
+    public void addMove(String word, int pattern) {
+        int packed = WordleScorer.pack(word);
+        for (int i = 0; i < WordleScorer.WORD_LENGTH; i++) {
+            char letter = (char) ('A' + WordleScorer.letterAt(packed, i));
+            String color = WordleScorer.colorName(WordleScorer.colorAt(pattern, i));
             
             letterEfficiency.merge(letter + "_" + color, 1, Integer::sum);
         }
     }
     
+    /**
+     * Candidate set of the game in progress, created by {@code newGame} on its first move.
+     * Callers narrow it while holding this object's lock.
+     */
+    public synchronized long[] getCurrentCandidates(Supplier<long[]> newGame) {
+        if (currentCandidates == null) {
+            currentCandidates = newGame.get();
+        }
+        return currentCandidates;
+    }
+    
+    public synchronized void clearCurrentCandidates() {
+        currentCandidates = null;
+    }
+    
     public double getWinRate() {
         return totalGames > 0 ? (double) gamesWon / totalGames : 0.0;
     }
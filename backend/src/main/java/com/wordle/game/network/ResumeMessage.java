@@ -0,0 +1,14 @@
+package com.wordle.game.network;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * RESUME: reclaim a held seat on a new connection, the resume token is in {@code content}
+ */
+public record ResumeMessage(@JsonProperty("content") String token) implements ClientMessage {
+
+    @Override
+    public MessageType type() {
+        return MessageType.RESUME;
+    }
+}
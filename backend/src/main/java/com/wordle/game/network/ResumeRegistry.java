@@ -0,0 +1,179 @@
+package com.wordle.game.network;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Resume token cho phép client kết nối lại mà không mất chỗ trong phòng
+ * Áp dụng kiến thức: Session Resumption, Grace Period, Connection Migration
+ *
+ * A token is issued when a player joins a room and names that seat. When the
+ * connection drops the seat is suspended rather than released; presenting the
+ * token on a new connection within the grace period moves the seat over, and
+ * otherwise the expiry callback releases it. A token is single use: resuming
+ * rotates it. All state changes happen under the registry's lock, so a
+ * disconnect, a resume and an expiry racing for the same seat have exactly one
+ * winner.
+ */
+public class ResumeRegistry {
+
+    private static final int TOKEN_BYTES = 16;
+
+    /**
+     * Seat a token refers to
+     */
+    public static final class Session {
+        private final String token;
+        private final String playerId;
+        private final String roomId;
+        /** Current connection, or null while the seat is suspended */
+        private PlayerConnection connection;
+        private TimerService.Handle expiry;
+
+        private Session(String token, String playerId, String roomId, PlayerConnection connection) {
+            this.token = token;
+            this.playerId = playerId;
+            this.roomId = roomId;
+            this.connection = connection;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public String getRoomId() {
+            return roomId;
+        }
+    }
+
+    /**
+     * Outcome of a successful resume
+     *
+     * @param session the seat, now bound to the new connection under a fresh token
+     * @param previous connection that held the seat until now, or null if it was suspended
+     */
+    public record Resumed(Session session, PlayerConnection previous) {
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new HashMap<>();
+    private final TimerService timers;
+    private int suspendedCount;
+
+    /**
+     * @param timers runs the grace period expiries
+     */
+    public ResumeRegistry(TimerService timers) {
+        this.timers = timers;
+    }
+
+    /**
+     * Issue a token for the seat a connection just took, replacing any token it held
+     */
+    public synchronized String issue(PlayerConnection connection, String roomId) {
+        if (connection.getResumeToken() != null) {
+            sessions.remove(connection.getResumeToken());
+        }
+        Session session = new Session(newToken(), connection.getPlayerId(), roomId, connection);
+        sessions.put(session.token, session);
+        connection.setResumeToken(session.token);
+        return session.token;
+    }
+
+    /**
+     * Hold the seat of a dropped connection for {@code graceMillis}
+     *
+     * @param holdSeat suspends the seat in its room; runs under the registry's lock, so the
+     *        expiry cannot fire before the seat is held, and false leaves the session alone
+     * @param onExpire called (on the timer thread) if nobody resumes in time
+     * @return false if the connection holds no seat any more (never joined, or taken over)
+     */
+    public synchronized boolean suspend(PlayerConnection connection, long graceMillis, BooleanSupplier holdSeat,
+            Consumer<Session> onExpire) {
+        Session session = connection.getResumeToken() != null ? sessions.get(connection.getResumeToken()) : null;
+        if (session == null || session.connection != connection || !holdSeat.getAsBoolean()) {
+            return false;
+        }
+        session.connection = null;
+        suspendedCount++;
+        session.expiry = timers.schedule(() -> expire(session, onExpire), graceMillis);
+        return true;
+    }
+
+    private void expire(Session session, Consumer<Session> onExpire) {
+        synchronized (this) {
+            if (sessions.get(session.token) != session || session.connection != null) {
+                return;
+            }
+            sessions.remove(session.token);
+            suspendedCount--;
+        }
+        onExpire.accept(session);
+    }
+
+    /**
+     * Move the seat named by {@code token} to a new connection. A connection still
+     * holding the seat (half-open on the server side) is marked replaced.
+     *
+     * @return the resumed seat, or null if the token is unknown or expired
+     */
+    public synchronized Resumed resume(String token, PlayerConnection connection) {
+        Session old = token != null ? sessions.remove(token) : null;
+        if (old == null) {
+            return null;
+        }
+        if (old.connection == null) {
+            old.expiry.cancel();
+            suspendedCount--;
+        } else {
+            old.connection.markReplaced();
+        }
+
+        Session session = new Session(newToken(), old.playerId, old.roomId, connection);
+        sessions.put(session.token, session);
+        connection.setResumeToken(session.token);
+        return new Resumed(session, old.connection);
+    }
+
+    /**
+     * Forget every session and cancel the pending expiries (server stop)
+     *
+     * @return the sessions whose seats were suspended, for the caller to release
+     */
+    public synchronized List<Session> clear() {
+        List<Session> suspended = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            if (session.connection == null) {
+                session.expiry.cancel();
+                suspended.add(session);
+            }
+        }
+        sessions.clear();
+        suspendedCount = 0;
+        return suspended;
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    public synchronized int getSuspendedCount() {
+        return suspendedCount;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
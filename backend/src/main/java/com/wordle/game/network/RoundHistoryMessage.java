@@ -0,0 +1,12 @@
+package com.wordle.game.network;
+
+/**
+ * ROUND_HISTORY: ask for the recent round results of the sender's room
+ */
+public record RoundHistoryMessage() implements ClientMessage {
+
+    @Override
+    public MessageType type() {
+        return MessageType.ROUND_HISTORY;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wordle.game.network;
+
+import java.util.List;
+
+/**
+ * ROUND_RESULT: immutable snapshot of a finished round, built once from the room's seat arrays
+ *
+ * @param endedAt epoch millis when the round ended
+ * @param players one entry per seat, connected or suspended, in seat order
+ */
+public record RoundResult(int roundNumber, String correctWord, long endedAt, List<PlayerResult> players) {
+
+    public RoundResult {
+        players = List.copyOf(players);
+    }
+
+    /**
+     * One seat's round
+     *
+     * @param completionTime millis from round start to the solving guess, 0 if unsolved
+     * @param wordsRemaining answers still consistent with the player's feedback
+     */
+    public record PlayerResult(String playerId, int attempts, boolean completed, long completionTime, int wordsRemaining) {
+    }
+}
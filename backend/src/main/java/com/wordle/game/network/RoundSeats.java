@@ -0,0 +1,180 @@
+package com.wordle.game.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trạng thái vòng chơi theo chỗ ngồi
+ * Áp dụng kiến thức: Structure of Arrays, Primitive Storage, O(1) Completion Check
+ *
+ * Every player id in a room holds a seat index from joining until it leaves
+ * for good (a suspended seat keeps its index). Round state lives in
+ * primitive arrays indexed by seat, so a move is a map lookup and a few
+ * array writes, with no keys built and no boxing. A counter of completed
+ * seats makes "has everyone finished?" a comparison. Each seat also keeps a
+ * {@link CandidateIndex} bitset of the answers its feedback still allows,
+ * narrowed in place on every attempt, so the words-remaining count of a
+ * player is always current. Not thread-safe: only the room's mailbox uses it.
+ */
+public class RoundSeats {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final CandidateIndex candidateIndex;
+    private final Map<String, Integer> seatIndexes = new HashMap<>();
+    private String[] playerIds = new String[INITIAL_CAPACITY];
+    private int[] attempts = new int[INITIAL_CAPACITY];
+    private boolean[] completed = new boolean[INITIAL_CAPACITY];
+    private long[] completionMillis = new long[INITIAL_CAPACITY];
+    private long[][] candidates = new long[INITIAL_CAPACITY][];
+    private int[] wordsRemaining = new int[INITIAL_CAPACITY];
+    private int occupiedCount;
+    private int completedCount;
+
+    public RoundSeats(CandidateIndex candidateIndex) {
+        this.candidateIndex = candidateIndex;
+    }
+
+    /**
+     * Seat of a player, taking the lowest free one if it has none
+     */
+    public int seat(String playerId) {
+        Integer existing = seatIndexes.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+        int seat = 0;
+        while (seat < playerIds.length && playerIds[seat] != null) {
+            seat++;
+        }
+        if (seat == playerIds.length) {
+            grow();
+        }
+        playerIds[seat] = playerId;
+        attempts[seat] = 0;
+        completed[seat] = false;
+        completionMillis[seat] = 0;
+        resetCandidates(seat);
+        seatIndexes.put(playerId, seat);
+        occupiedCount++;
+        return seat;
+    }
+
+    /**
+     * Free a player's seat for good
+     *
+     * @return false if the player had no seat
+     */
+    public boolean release(String playerId) {
+        Integer seat = seatIndexes.remove(playerId);
+        if (seat == null) {
+            return false;
+        }
+        if (completed[seat]) {
+            completedCount--;
+        }
+        playerIds[seat] = null;
+        occupiedCount--;
+        return true;
+    }
+
+    /**
+     * Seat of a player, or -1
+     */
+    public int indexOf(String playerId) {
+        Integer seat = seatIndexes.get(playerId);
+        return seat != null ? seat : -1;
+    }
+
+    /**
+     * Clear every seat's round state
+     */
+    public void resetRound() {
+        Arrays.fill(attempts, 0);
+        Arrays.fill(completed, false);
+        Arrays.fill(completionMillis, 0);
+        completedCount = 0;
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            if (playerIds[seat] != null) {
+                resetCandidates(seat);
+            }
+        }
+    }
+
+    /**
+     * Every answer possible again; a seat's bitset is allocated once and reused
+     */
+    private void resetCandidates(int seat) {
+        if (candidates[seat] == null) {
+            candidates[seat] = candidateIndex.newFullSet();
+        } else {
+            candidateIndex.fill(candidates[seat]);
+        }
+        wordsRemaining[seat] = candidateIndex.getAnswerCount();
+    }
+
+    /**
+     * Count an attempt of a seat and narrow its candidates; a solving attempt completes the seat once
+     *
+     * @param guess the packed guess, which got {@code pattern}
+     * @param elapsedMillis time since the round started, kept as the completion time
+     */
+    public void recordAttempt(int seat, int guess, int pattern, long elapsedMillis) {
+        attempts[seat]++;
+        candidateIndex.narrow(candidates[seat], guess, pattern);
+        wordsRemaining[seat] = CandidateIndex.count(candidates[seat]);
+        if (pattern == WordleScorer.ALL_GREEN && !completed[seat]) {
+            completed[seat] = true;
+            completionMillis[seat] = elapsedMillis;
+            completedCount++;
+        }
+    }
+
+    /**
+     * True once every occupied seat has completed the round
+     */
+    public boolean allCompleted() {
+        return occupiedCount > 0 && completedCount == occupiedCount;
+    }
+
+    /**
+     * Words-remaining count of every seat by player id
+     */
+    public Map<String, Integer> toWordsRemaining() {
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            if (playerIds[seat] != null) {
+                remaining.put(playerIds[seat], wordsRemaining[seat]);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Immutable copy of every seat's round state, in seat order
+     */
+    public RoundResult snapshot(int roundNumber, String correctWord, long endedAt) {
+        List<RoundResult.PlayerResult> players = new ArrayList<>(occupiedCount);
+        for (int seat = 0; seat < playerIds.length; seat++) {
+            if (playerIds[seat] != null) {
+                players.add(new RoundResult.PlayerResult(playerIds[seat], attempts[seat], completed[seat],
+                        completionMillis[seat], wordsRemaining[seat]));
+            }
+        }
+        return new RoundResult(roundNumber, correctWord, endedAt, players);
+    }
+
+    private void grow() {
+        int capacity = playerIds.length * 2;
+        playerIds = Arrays.copyOf(playerIds, capacity);
+        attempts = Arrays.copyOf(attempts, capacity);
+        completed = Arrays.copyOf(completed, capacity);
+        completionMillis = Arrays.copyOf(completionMillis, capacity);
+        candidates = Arrays.copyOf(candidates, capacity);
+        wordsRemaining = Arrays.copyOf(wordsRemaining, capacity);
+    }
+}
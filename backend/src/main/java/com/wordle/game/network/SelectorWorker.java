@@ -0,0 +1,237 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Worker Reactor - một Selector riêng cho một nhóm connection
+ * Áp dụng kiến thức: Reactor Pattern, Multi-threaded NIO, Event Loop
+ *
+ * The acceptor hands each accepted channel to one worker; from then on every
+ * read and write of that connection happens on this worker's thread. Other
+ * threads never touch the selector directly: they post commands to a lock-free
+ * queue that the loop drains at the top of each iteration, and at most one
+ * wakeup is issued per batch of commands. Timeouts for the connections of
+ * this worker (idle reaping) live in a {@link TimingWheel} that the loop
+ * advances after each select, so they need no locking either.
+ */
+public class SelectorWorker implements Runnable, ConnectionLoop {
+
+    private static final Logger logger = LoggerFactory.getLogger(SelectorWorker.class);
+
+    private static final long TIMER_TICK_MILLIS = 250;
+    private static final int TIMER_WHEEL_SIZE = 512;
+
+    private final int workerId;
+    private final TcpGameServer server;
+    private final Selector selector;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final TimingWheel timers = new TimingWheel(TIMER_TICK_MILLIS, TIMER_WHEEL_SIZE, currentMillis());
+    private volatile boolean running = true;
+    private volatile Thread eventLoopThread;
+
+    public SelectorWorker(int workerId, TcpGameServer server) throws IOException {
+        this.workerId = workerId;
+        this.server = server;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Hand a freshly accepted channel to this worker (called from the acceptor thread)
+     */
+    public void register(SocketChannel channel) {
+        connectionCount.incrementAndGet();
+        execute(() -> registerChannel(channel));
+    }
+
+    /**
+     * Accept on a listening socket from this worker's loop (SO_REUSEPORT sharding)
+     */
+    public void addListener(ServerSocketChannel listener) {
+        execute(() -> {
+            try {
+                listener.register(selector, SelectionKey.OP_ACCEPT);
+            } catch (ClosedChannelException e) {
+                logger.debug("Listener closed before registration on worker {}", workerId);
+            }
+        });
+    }
+
+    /**
+     * Accept what is left in a listener's backlog on this loop, then close it (rebind)
+     */
+    public void removeListener(ServerSocketChannel listener) {
+        execute(() -> {
+            try {
+                server.handleAccept(listener, this);
+            } catch (IOException e) {
+                logger.warn("Error accepting on a retired listener on worker {}", workerId, e);
+            }
+            server.closeListener(listener);
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        commands.offer(command);
+        if (!inEventLoop() && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        eventLoopThread = Thread.currentThread();
+        Thread.currentThread().setName("tcp-worker-" + workerId);
+
+        while (running) {
+            try {
+                long timeout = timers.millisUntilNextTick(currentMillis());
+                if (commands.isEmpty() && timeout > 0) {
+                    selector.select(timeout);
+                } else {
+                    selector.selectNow();
+                }
+
+                // Reset before draining so commands posted from now on wake us again
+                wakeupPending.set(false);
+                runCommands();
+
+                Set<SelectionKey> selectedKeys = selector.selectedKeys();
+                Iterator<SelectionKey> keyIterator = selectedKeys.iterator();
+
+                while (keyIterator.hasNext()) {
+                    SelectionKey key = keyIterator.next();
+                    keyIterator.remove();
+
+                    if (key.isValid() && key.isAcceptable()) {
+                        server.handleAccept((ServerSocketChannel) key.channel(), this);
+                        continue;
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        server.handleRead(key);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        server.handleWrite(key);
+                    }
+                }
+                
+                runTimers();
+
+            } catch (IOException e) {
+                if (running) {
+                    logger.error("Error in worker {} event loop", workerId, e);
+                }
+            }
+        }
+
+        closeSelector();
+    }
+
+    private void runCommands() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                logger.error("Error running command on worker {}", workerId, e);
+            }
+        }
+    }
+
+    private void runTimers() {
+        try {
+            timers.advance(currentMillis());
+        } catch (RuntimeException e) {
+            logger.error("Error running timer on worker {}", workerId, e);
+        }
+    }
+
+    @Override
+    public TimingWheel.Timeout schedule(Runnable task, long delayMillis) {
+        return timers.schedule(task, delayMillis);
+    }
+
+    /**
+     * Monotonic clock for the timer wheel
+     */
+    private static long currentMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    private void registerChannel(SocketChannel channel) {
+        try {
+            channel.register(selector, SelectionKey.OP_READ);
+            server.onChannelRegistered(channel, this);
+        } catch (ClosedChannelException e) {
+            connectionCount.decrementAndGet();
+            // Nothing was set up yet, but the admission slot must still be returned
+            server.handleClientDisconnect(channel);
+            logger.debug("Channel closed before registration on worker {}", workerId);
+        }
+    }
+
+    private void closeSelector() {
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.error("Error closing worker {} selector", workerId, e);
+        }
+    }
+
+    @Override
+    public void flush(PlayerConnection connection) {
+        SelectionKey key = connection.getChannel().keyFor(selector);
+        if (key != null && key.isValid()) {
+            server.flushConnection(connection, key);
+        }
+    }
+
+    @Override
+    public void onConnectionClosed(PlayerConnection connection) {
+        connectionCount.decrementAndGet();
+        connection.releaseBuffers();
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public boolean inEventLoop() {
+        return Thread.currentThread() == eventLoopThread;
+    }
+
+    public Selector getSelector() {
+        return selector;
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "worker " + workerId;
+    }
+}
@@ -0,0 +1,78 @@
+package com.wordle.game.network;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mailbox chạy tuần tự trên một thread pool dùng chung
+ * Áp dụng kiến thức: Actor Model, Serial Executor, Lock-free Queue
+ *
+ * Tasks submitted from any thread run one at a time, in submission order,
+ * on whichever pool thread picks the mailbox up. Everything a task touches
+ * is therefore single-writer without locks. A mailbox runs at most
+ * {@link #MAX_BATCH} tasks before yielding its thread, so one busy owner
+ * cannot starve the others sharing the pool.
+ */
+public class SerialExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerialExecutor.class);
+
+    private static final int MAX_BATCH = 64;
+
+    private final String name;
+    private final Executor pool;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public SerialExecutor(String name, Executor pool) {
+        this.name = name;
+        this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        mailbox.offer(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                pool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.error("Pool rejected mailbox {}, {} tasks pending", name, mailbox.size());
+            }
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < MAX_BATCH; i++) {
+            Runnable task = mailbox.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Error in mailbox {}", name, e);
+            }
+        }
+
+        scheduled.set(false);
+        // Tasks that arrived after the last poll (or beyond the batch) need another turn
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    public int getPendingTasks() {
+        return mailbox.size();
+    }
+}
@@ -0,0 +1,94 @@
+package com.wordle.game.network;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numeric ids for the names of live rooms and players
+ * Áp dụng kiến thức: Symbol Interning, Reference Counting, Compact Protocol Encoding
+ *
+ * The binary protocol sends these small ids (as varints) instead of repeating
+ * the strings in every frame. Id 0 means "no value". A name holds its id
+ * while something holds a reference to it: a room while it exists, a player
+ * while it has a seat (held seats included). The server takes references;
+ * encoding only looks ids up, so names a client makes up never get one.
+ * Ids are never reused, so a client holding a stale mapping can never
+ * confuse two names.
+ */
+public class SessionIdRegistry {
+
+    public enum Kind {
+        ROOM,
+        PLAYER
+    }
+
+    private record Entry(int id, int references) {
+    }
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final Map<String, Entry> roomIds = new ConcurrentHashMap<>();
+    private final Map<String, Entry> playerIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Take a reference to a name, assigning its id on the first one
+     *
+     * @return the name's id, or 0 for a null name
+     */
+    public int acquire(Kind kind, String name) {
+        if (name == null) {
+            return 0;
+        }
+        return idsOf(kind).compute(name, (key, entry) -> {
+            if (entry != null) {
+                return new Entry(entry.id(), entry.references() + 1);
+            }
+            int id = nextId.getAndIncrement();
+            names.put(id, key);
+            return new Entry(id, 1);
+        }).id();
+    }
+
+    /**
+     * Drop a reference taken by {@link #acquire}; the last one frees the id
+     */
+    public void release(Kind kind, String name) {
+        if (name == null) {
+            return;
+        }
+        idsOf(kind).computeIfPresent(name, (key, entry) -> {
+            if (entry.references() > 1) {
+                return new Entry(entry.id(), entry.references() - 1);
+            }
+            names.remove(entry.id());
+            return null;
+        });
+    }
+
+    /**
+     * Id of a name, or 0 if it has none
+     */
+    public int idFor(Kind kind, String name) {
+        if (name == null) {
+            return 0;
+        }
+        Entry entry = idsOf(kind).get(name);
+        return entry != null ? entry.id() : 0;
+    }
+
+    /**
+     * Name for an id, or null if unknown (or 0)
+     */
+    public String nameFor(int id) {
+        return id == 0 ? null : names.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    private Map<String, Entry> idsOf(Kind kind) {
+        return kind == Kind.ROOM ? roomIds : playerIds;
+    }
+}
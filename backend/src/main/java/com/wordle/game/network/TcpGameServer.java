@@ -2,21 +2,33 @@ package com.wordle.game.network;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,50 +36,316 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 /**
  * TCP Socket Server cho Real-time Game Communication
  * Áp dụng kiến thức: TCP/IP, Multi-threading, NIO, Socket Programming
+ *
+ * Boss/worker reactors: one acceptor selector hands connections to N worker
+ * selectors (wordle.tcp.worker-selectors), each running its own event loop.
+ * With wordle.tcp.listener-shards > 1 there is no acceptor thread: N listening
+ * sockets share the port through SO_REUSEPORT, each owned by one worker, and
+ * the kernel spreads new connections across them.
+ * With wordle.tcp.engine=virtual-threads the same handlers and rooms are
+ * served by {@link VirtualThreadEngine} instead, one blocking thread set per
+ * connection, so the two engines can be compared on the same workload.
  */
 @Service
 public class TcpGameServer {
     
     private static final Logger logger = LoggerFactory.getLogger(TcpGameServer.class);
-    private static final int TCP_PORT = 8081;
-    private static final int BUFFER_SIZE = 1024;
     
-    private ServerSocketChannel serverChannel;
+    /**
+     * How connections are served
+     */
+    public enum Engine {
+        /** Non-blocking selector workers */
+        NIO,
+        /** Blocking thread-per-connection on virtual threads (Java 21) */
+        VIRTUAL_THREADS
+    }
+    
+    @Value("${wordle.tcp.engine:nio}")
+    private Engine engine = Engine.NIO;
+    
+    @Value("${wordle.tcp.port:8081}")
+    private int port = 8081;
+    
+    /** Listening sockets bound with SO_REUSEPORT; 1 keeps a single acceptor */
+    @Value("${wordle.tcp.listener-shards:1}")
+    private int listenerShards = 1;
+    
+    @Value("${wordle.tcp.backlog:1024}")
+    private int backlog = 1024;
+    
+    /** Socket buffer sizes in bytes; 0 keeps the OS default */
+    @Value("${wordle.tcp.so-rcvbuf:0}")
+    private int receiveBufferSize = 0;
+    
+    @Value("${wordle.tcp.so-sndbuf:0}")
+    private int sendBufferSize = 0;
+    
+    @Value("${wordle.tcp.tcp-nodelay:true}")
+    private boolean tcpNoDelay = true;
+    
+    @Value("${wordle.tcp.framing:newline}")
+    private FrameCodec.Mode framingMode = FrameCodec.Mode.NEWLINE;
+    
+    @Value("${wordle.tcp.max-frame-bytes:65536}")
+    private int maxFrameBytes = 65536;
+    
+    /** Number of worker selectors; 0 means one per available processor */
+    @Value("${wordle.tcp.worker-selectors:0}")
+    private int workerSelectors = 0;
+    
+    /** Threads shared by all room mailboxes; 0 means one per available processor */
+    @Value("${wordle.tcp.room-threads:0}")
+    private int roomThreads = 0;
+    
+    @Value("${wordle.tcp.idle-timeout-ms:30000}")
+    private long idleTimeoutMillis = 30000;
+    
+    /** Quiet time before the server pings a connection when lightly loaded; 0 disables pings */
+    @Value("${wordle.tcp.ping-interval-ms:10000}")
+    private long pingIntervalMillis = 10000;
+    
+    /** Quiet time before a ping when the server is at its connection limit */
+    @Value("${wordle.tcp.ping-interval-max-ms:20000}")
+    private long pingIntervalMaxMillis = 20000;
+    
+    /** How long a dropped player's seat is held for a resume; 0 disables resume tokens */
+    @Value("${wordle.tcp.resume-grace-ms:30000}")
+    private long resumeGraceMillis = 30000;
+    
+    /** How long stopServer waits for queued frames to reach clients before closing them */
+    @Value("${wordle.tcp.drain-timeout-ms:5000}")
+    private long drainTimeoutMillis = 5000;
+    
+    // Admission control; 0 disables a limit
+    @Value("${wordle.tcp.max-connections:10000}")
+    private int maxConnections = 10000;
+    
+    @Value("${wordle.tcp.max-connections-per-ip:64}")
+    private int maxConnectionsPerIp = 64;
+    
+    @Value("${wordle.tcp.accept-rate-per-second:200}")
+    private double acceptRatePerSecond = 200;
+    
+    @Value("${wordle.tcp.accept-burst:400}")
+    private int acceptBurst = 400;
+    
+    // Inbound message limits per connection (messages per second, burst); 0 disables a limit
+    @Value("${wordle.tcp.rate-limit.game-move-per-second:5}")
+    private double gameMoveRate = 5;
+    
+    @Value("${wordle.tcp.rate-limit.game-move-burst:10}")
+    private int gameMoveBurst = 10;
+    
+    @Value("${wordle.tcp.rate-limit.chat-per-second:3}")
+    private double chatRate = 3;
+    
+    @Value("${wordle.tcp.rate-limit.chat-burst:10}")
+    private int chatBurst = 10;
+    
+    @Value("${wordle.tcp.rate-limit.heartbeat-per-second:1}")
+    private double heartbeatRate = 1;
+    
+    @Value("${wordle.tcp.rate-limit.heartbeat-burst:5}")
+    private int heartbeatBurst = 5;
+    
+    @Value("${wordle.tcp.max-bad-frames:16}")
+    private int maxBadFrames = 16;
+    
+    // Round timing for every room
+    @Value("${wordle.round.start-delay-ms:0}")
+    private long roundStartDelayMillis = 0;
+    
+    @Value("${wordle.round.time-limit-ms:300000}")
+    private long roundTimeLimitMillis = 300000;
+    
+    @Value("${wordle.round.gap-ms:5000}")
+    private long roundGapMillis = 5000;
+    
+    /** How long a chat line may wait to share a frame with others; 0 sends each line at once */
+    @Value("${wordle.chat.tick-ms:50}")
+    private long chatTickMillis = 50;
+    
+    /** Lines that make a room's chat batch go out before the tick */
+    @Value("${wordle.chat.max-batch:32}")
+    private int chatMaxBatch = 32;
+    
+    @Value("${wordle.tcp.outbound.capacity:1024}")
+    private int outboundCapacity = 1024;
+    
+    @Value("${wordle.tcp.outbound.high-watermark:768}")
+    private int outboundHighWatermark = 768;
+    
+    @Value("${wordle.tcp.outbound.low-watermark:256}")
+    private int outboundLowWatermark = 256;
+    
+    @Value("${wordle.tcp.outbound.policy:drop-chat}")
+    private OutboundQueue.Policy outboundPolicy = OutboundQueue.Policy.DROP_CHAT;
+    
+    private static final long DRAIN_POLL_MILLIS = 50;
+    private static final long CLOSE_WAIT_MILLIS = 1000;
+    
+    private volatile List<ServerSocketChannel> listeners = List.of();
     private Selector selector;
+    /** Listener changes for the unsharded acceptor, run by its loop */
+    private final Queue<Runnable> acceptorCommands = new ConcurrentLinkedQueue<>();
+    private final List<SelectorWorker> workers = new ArrayList<>();
+    private int nextWorker;
     private ExecutorService threadPool;
+    private VirtualThreadEngine virtualThreadEngine;
+    private ExecutorService roomPool;
+    private volatile ChatBatcher<ChatMessage.Line> chatBatcher;
+    private GameRoom.RoundTimings roundTimings;
+    private volatile AdmissionController admission;
     private ObjectMapper objectMapper;
+    private final DirectBufferPool bufferPool = new DirectBufferPool();
+    private final SessionIdRegistry sessionIds = new SessionIdRegistry();
+    // Round and resume timers of all rooms share one wheel and one thread; replaced on a restart after stop
+    private volatile TimerService timerService = new TimerService("game-timer");
+    private volatile ResumeRegistry resumeRegistry = new ResumeRegistry(timerService);
+    // Answer bitsets shared by every room's per-player candidate sets
+    private final CandidateIndex candidateIndex = new CandidateIndex(WordleWords.answers());
+    private final BinaryMessageCodec binaryCodec;
+    private final MessageRouter messageRouter;
     private volatile boolean isRunning = false;
     
+    // Backpressure counters
+    private final LongAdder droppedFrames = new LongAdder();
+    private final LongAdder coalescedFrames = new LongAdder();
+    private final LongAdder slowConsumerDisconnects = new LongAdder();
+    private final LongAdder reapedConnections = new LongAdder();
+    private final LongAdder badFrames = new LongAdder();
+    private final LongAdder badFrameDisconnects = new LongAdder();
+    private final LongAdder pingsSent = new LongAdder();
+    
+    // Pre-encoded server pings, indexed by WireFormat ordinal
+    private ByteBuffer[] pingFrames;
+    
+    // Inbound messages dropped by rate limits, indexed by MessageType ordinal
+    private final LongAdder[] rateLimitedMessages = new LongAdder[MessageType.values().length];
+    
+    // Session resume counters
+    private final LongAdder resumedSessions = new LongAdder();
+    private final LongAdder expiredSeats = new LongAdder();
+    private final LongAdder roundResults = new LongAdder();
+    
     // Game rooms management
     private final Map<String, GameRoom> gameRooms = new ConcurrentHashMap<>();
     private final Map<SocketChannel, PlayerConnection> playerConnections = new ConcurrentHashMap<>();
     
     public TcpGameServer() {
-        this.threadPool = Executors.newFixedThreadPool(10);
         this.objectMapper = new ObjectMapper();
+        this.binaryCodec = new BinaryMessageCodec(sessionIds, objectMapper);
+        this.messageRouter = new MessageRouter(objectMapper);
+        for (int i = 0; i < rateLimitedMessages.length; i++) {
+            rateLimitedMessages[i] = new LongAdder();
+        }
+        registerMessageHandlers();
+    }
+    
+    /**
+     * Build the dispatch table once; lookups are by MessageType ordinal
+     */
+    private void registerMessageHandlers() {
+        messageRouter.register(MessageType.HELLO, HelloMessage.class, this::handleHello);
+        messageRouter.register(MessageType.JOIN_ROOM, JoinRoomMessage.class, this::handleJoinRoom);
+        messageRouter.register(MessageType.RESUME, ResumeMessage.class, this::handleResume);
+        messageRouter.register(MessageType.GAME_MOVE, GameMoveMessage.class, this::handleGameMove);
+        messageRouter.register(MessageType.CHAT_MESSAGE, ChatMessage.class, this::handleChatMessage);
+        messageRouter.register(MessageType.ROUND_HISTORY, RoundHistoryMessage.class, this::handleRoundHistory);
+        // Heartbeats need no reply: reading the frame already counted as activity
+        messageRouter.register(MessageType.HEARTBEAT, HeartbeatMessage.class, (connection, message) -> { });
+    }
+    
+    /**
+     * Start TCP Server with the configured engine
+     */
+    public synchronized void startServer() {
+        if (timerService.isShutdown()) {
+            timerService = new TimerService("game-timer");
+            resumeRegistry = new ResumeRegistry(timerService);
+        }
+        startRoomPool();
+        roundTimings = new GameRoom.RoundTimings(roundStartDelayMillis, roundTimeLimitMillis, roundGapMillis);
+        if (chatBatcher == null) {
+            chatBatcher = new ChatBatcher<>("tcp-chat", chatTickMillis, chatMaxBatch, this::broadcastChatBatch);
+        }
+        pingFrames = encodePingFrames();
+        admission = new AdmissionController(maxConnections, maxConnectionsPerIp, acceptRatePerSecond, acceptBurst);
+        if (engine == Engine.VIRTUAL_THREADS) {
+            startVirtualThreadServer();
+        } else {
+            startNioServer();
+        }
+    }
+    
+    /**
+     * Threads that run room mailboxes. Rooms outlive a listener rebind, so the
+     * pool lives from start to stop and uses daemon threads.
+     */
+    private void startRoomPool() {
+        if (roomPool != null) {
+            return;
+        }
+        int threads = roomThreads > 0 ? roomThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        roomPool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "room-worker-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
     
     /**
      * Start TCP Server với NIO (Non-blocking I/O)
      */
-    public void startServer() {
+    private void startNioServer() {
         try {
-            // Tạo selector cho NIO
-            selector = Selector.open();
-            
-            // Tạo server socket channel
-            serverChannel = ServerSocketChannel.open();
-            serverChannel.configureBlocking(false);
-            serverChannel.bind(new InetSocketAddress(TCP_PORT));
+            int workerCount = workerSelectors > 0 ? workerSelectors : Runtime.getRuntime().availableProcessors();
+            listeners = openListeners(false);
+            boolean sharded = listeners.size() > 1;
+            threadPool = Executors.newFixedThreadPool(sharded ? workerCount : workerCount + 1);
             
-            // Register accept operation
-            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            // Start worker reactors before accepting anything
+            workers.clear();
+            for (int i = 0; i < workerCount; i++) {
+                SelectorWorker worker = new SelectorWorker(i, this);
+                workers.add(worker);
+                threadPool.submit(worker);
+            }
             
             isRunning = true;
-            logger.info("TCP Game Server started on port {}", TCP_PORT);
+            if (!sharded) {
+                // Tạo selector cho NIO (acceptor)
+                selector = Selector.open();
+                acceptorCommands.clear();
+            }
+            acceptOn(listeners);
+            if (!sharded) {
+                // Acceptor loop
+                threadPool.submit(this::serverLoop);
+            }
+            
+            logger.info("TCP Game Server started on port {} with {} worker selectors and {} listeners",
+                    port, workerCount, listeners.size());
+            
+        } catch (IOException e) {
+            logger.error("Failed to start TCP server", e);
+        }
+    }
+    
+    /**
+     * Start TCP Server với blocking channels on virtual threads
+     */
+    private void startVirtualThreadServer() {
+        try {
+            listeners = openListeners(true);
             
-            // Main server loop
-            threadPool.submit(this::serverLoop);
+            virtualThreadEngine = new VirtualThreadEngine(this);
+            isRunning = true;
+            acceptOn(listeners);
+            logger.info("TCP Game Server started on port {} with {} per connection and {} listeners", port,
+                    virtualThreadEngine.isVirtual() ? "virtual threads" : "platform threads", listeners.size());
             
         } catch (IOException e) {
             logger.error("Failed to start TCP server", e);
@@ -75,13 +353,159 @@ public class TcpGameServer {
     }
     
     /**
-     * Main server loop sử dụng NIO Selector
+     * Bind the configured number of listening sockets on the TCP port. More than
+     * one needs SO_REUSEPORT; where the platform lacks it a single listener is used.
+     */
+    private List<ServerSocketChannel> openListeners(boolean blocking) throws IOException {
+        List<ServerSocketChannel> opened = new ArrayList<>();
+        int shards = Math.max(1, listenerShards);
+        for (int i = 0; i < shards; i++) {
+            ServerSocketChannel listener = ServerSocketChannel.open();
+            // Set even for one listener, so a rebind can bind beside it
+            if (listener.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                listener.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            } else if (shards > 1) {
+                logger.warn("SO_REUSEPORT is not supported here; using a single TCP listener");
+                shards = 1;
+            }
+            listener.configureBlocking(blocking);
+            listener.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            if (receiveBufferSize > 0) {
+                // Set before bind so accepted sockets can use a matching window scale
+                listener.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+            }
+            listener.bind(new InetSocketAddress(port), backlog);
+            opened.add(listener);
+        }
+        return opened;
+    }
+    
+    /**
+     * Start accepting on freshly bound listeners with the running engine
+     */
+    private void acceptOn(List<ServerSocketChannel> opened) throws IOException {
+        if (engine == Engine.VIRTUAL_THREADS) {
+            virtualThreadEngine.start(opened);
+        } else if (opened.size() > 1) {
+            // Each worker accepts on its own listener and keeps what it accepts
+            for (int i = 0; i < opened.size(); i++) {
+                workers.get(i % workers.size()).addListener(opened.get(i));
+            }
+        } else {
+            ServerSocketChannel listener = opened.get(0);
+            executeOnAcceptor(() -> {
+                try {
+                    listener.register(selector, SelectionKey.OP_ACCEPT);
+                } catch (IOException e) {
+                    logger.error("Failed to register TCP listener with the acceptor", e);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Run a command on the acceptor loop, which alone touches its selector
+     */
+    private void executeOnAcceptor(Runnable command) {
+        acceptorCommands.offer(command);
+        selector.wakeup();
+    }
+    
+    /**
+     * Rebind the listening sockets while established connections stay on their
+     * loops. The new sockets are bound beside the old ones with SO_REUSEPORT, so
+     * the port keeps accepting throughout; each old socket then has its backlog
+     * accepted and is closed. Without SO_REUSEPORT the current listeners are kept.
+     */
+    public synchronized void rebindListeners() {
+        if (!isRunning) {
+            startServer();
+            return;
+        }
+        
+        List<ServerSocketChannel> previous = listeners;
+        if (!previous.stream().allMatch(TcpGameServer::reusesPort)) {
+            logger.warn("SO_REUSEPORT is not available; keeping the current TCP listeners");
+            return;
+        }
+        try {
+            List<ServerSocketChannel> replacement = openListeners(engine == Engine.VIRTUAL_THREADS);
+            listeners = replacement;
+            acceptOn(replacement);
+            retireListeners(previous);
+            logger.info("TCP listeners rebound on port {} ({} connections kept)", port, playerConnections.size());
+            
+        } catch (IOException e) {
+            logger.error("Failed to rebind TCP listeners", e);
+        }
+    }
+    
+    private static boolean reusesPort(ServerSocketChannel listener) {
+        try {
+            return listener.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)
+                    && listener.getOption(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Close listeners replaced by a rebind. Selector-driven ones first accept what
+     * is already in their backlog, which the kernel would otherwise reset; closing
+     * a blocking one ends its accept loop.
+     */
+    private void retireListeners(List<ServerSocketChannel> retired) {
+        for (int i = 0; i < retired.size(); i++) {
+            ServerSocketChannel listener = retired.get(i);
+            if (listener.isBlocking()) {
+                closeListener(listener);
+            } else if (retired.size() > 1) {
+                workers.get(i % workers.size()).removeListener(listener);
+            } else {
+                executeOnAcceptor(() -> {
+                    try {
+                        handleAccept(listener, null);
+                    } catch (IOException e) {
+                        logger.warn("Error accepting on a retired TCP listener", e);
+                    }
+                    // The socket is released once the acceptor's next select drops its key
+                    closeListener(listener);
+                });
+            }
+        }
+    }
+    
+    void closeListener(ServerSocketChannel listener) {
+        try {
+            listener.close();
+        } catch (IOException e) {
+            logger.warn("Error closing TCP listener", e);
+        }
+    }
+    
+    /**
+     * Apply the configured options to an accepted socket
+     */
+    private void configureSocket(SocketChannel clientChannel) throws IOException {
+        clientChannel.setOption(StandardSocketOptions.TCP_NODELAY, tcpNoDelay);
+        if (receiveBufferSize > 0) {
+            clientChannel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+        }
+        if (sendBufferSize > 0) {
+            clientChannel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+        }
+    }
+    
+    /**
+     * Acceptor loop sử dụng NIO Selector - chỉ xử lý OP_ACCEPT
      */
     private void serverLoop() {
+        Thread.currentThread().setName("tcp-acceptor");
         while (isRunning) {
             try {
-                // Wait for events
-                int readyChannels = selector.select(1000);
+                // Wait for events, unless listener commands are waiting
+                int readyChannels = acceptorCommands.isEmpty() ? selector.select(1000) : selector.selectNow();
+                runAcceptorCommands();
                 
                 if (readyChannels == 0) continue;
                 
@@ -95,54 +519,224 @@ public class TcpGameServer {
                     if (!key.isValid()) continue;
                     
                     if (key.isAcceptable()) {
-                        handleAccept(key);
-                    } else if (key.isReadable()) {
-                        handleRead(key);
-                    } else if (key.isWritable()) {
-                        handleWrite(key);
+                        handleAccept((ServerSocketChannel) key.channel(), null);
                     }
                 }
                 
             } catch (IOException e) {
-                logger.error("Error in server loop", e);
+                if (isRunning) {
+                    logger.error("Error in server loop", e);
+                }
+            }
+        }
+    }
+    
+    private void runAcceptorCommands() {
+        Runnable command;
+        while ((command = acceptorCommands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                logger.error("Error running acceptor command", e);
+            }
+        }
+    }
+    
+    /**
+     * Handle new client connections, draining the listener's backlog
+     *
+     * @param owner worker that owns the listener (sharded), or null to pick the least-loaded one
+     */
+    void handleAccept(ServerSocketChannel listener, SelectorWorker owner) throws IOException {
+        try {
+            SocketChannel clientChannel;
+            while ((clientChannel = listener.accept()) != null) {
+                if (!admit(clientChannel)) {
+                    continue;
+                }
+                try {
+                    clientChannel.configureBlocking(false);
+                } catch (IOException e) {
+                    // Peer gone already; keep draining the backlog
+                    dropAccepted(clientChannel);
+                    continue;
+                }
+                
+                // Hand off to a worker reactor; registration happens on its thread
+                (owner != null ? owner : selectWorker()).register(clientChannel);
+            }
+        } catch (ClosedChannelException e) {
+            // Listener retired by a rebind or stop; its key is dropped on the next select
+        }
+    }
+    
+    /**
+     * Admission check for a freshly accepted channel (accepting thread). Rejected
+     * channels, and channels that fail setup (peer reset), are closed with their
+     * slot released; admitted ones get the configured socket options.
+     */
+    boolean admit(SocketChannel clientChannel) {
+        try {
+            if (admission.admit(clientChannel) == null) {
+                configureSocket(clientChannel);
+                return true;
             }
+        } catch (IOException e) {
+            logger.debug("Dropping a connection that failed setup: {}", e.toString());
         }
+        // Release is a no-op for a channel that was never admitted
+        dropAccepted(clientChannel);
+        return false;
     }
     
     /**
-     * Handle new client connections
+     * Release the slot of an admitted channel that never reached a loop, and close it
      */
-    private void handleAccept(SelectionKey key) throws IOException {
-        ServerSocketChannel serverChannel = (ServerSocketChannel) key.channel();
-        SocketChannel clientChannel = serverChannel.accept();
+    void dropAccepted(SocketChannel clientChannel) {
+        admission.release(clientChannel);
+        try {
+            clientChannel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing a dropped connection", e);
+        }
+    }
+    
+    /**
+     * Fresh token buckets for a new connection
+     */
+    private TokenBucket[] newRateLimits() {
+        TokenBucket[] limits = new TokenBucket[MessageType.values().length];
+        limits[MessageType.GAME_MOVE.ordinal()] = gameMoveRate > 0 ? new TokenBucket(gameMoveRate, gameMoveBurst) : null;
+        limits[MessageType.CHAT_MESSAGE.ordinal()] = chatRate > 0 ? new TokenBucket(chatRate, chatBurst) : null;
+        limits[MessageType.HEARTBEAT.ordinal()] = heartbeatRate > 0 ? new TokenBucket(heartbeatRate, heartbeatBurst) : null;
+        return limits;
+    }
+    
+    /**
+     * Pick the least-loaded worker, rotating the starting point to break ties
+     */
+    private SelectorWorker selectWorker() {
+        int count = workers.size();
+        int start = nextWorker;
+        nextWorker = (start + 1) % count;
         
-        if (clientChannel != null) {
-            clientChannel.configureBlocking(false);
-            clientChannel.register(selector, SelectionKey.OP_READ);
-            
-            // Create player connection
-            PlayerConnection connection = new PlayerConnection(clientChannel);
-            playerConnections.put(clientChannel, connection);
-            
-            logger.info("New client connected: {}", clientChannel.getRemoteAddress());
-            
-            // Send welcome message
-            sendWelcomeMessage(clientChannel);
+        SelectorWorker selected = workers.get(start);
+        for (int i = 1; i < count; i++) {
+            SelectorWorker candidate = workers.get((start + i) % count);
+            if (candidate.getConnectionCount() < selected.getConnectionCount()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+    
+    /**
+     * Called on the connection's loop once the engine is ready to serve the channel
+     */
+    PlayerConnection onChannelRegistered(SocketChannel clientChannel, ConnectionLoop loop) {
+        // Create player connection
+        PlayerConnection connection = new PlayerConnection(clientChannel,
+                new FrameCodec(framingMode, maxFrameBytes, bufferPool),
+                new OutboundQueue(outboundCapacity, outboundHighWatermark, outboundLowWatermark, outboundPolicy));
+        connection.setLoop(loop);
+        connection.setRateLimits(newRateLimits());
+        playerConnections.put(clientChannel, connection);
+        scheduleIdleCheck(connection, nextIdleCheck(0, currentPingInterval()));
+        
+        try {
+            logger.info("New client connected: {} ({})", clientChannel.getRemoteAddress(), loop);
+        } catch (IOException e) {
+            logger.debug("Could not read remote address", e);
+        }
+        
+        // Send welcome message
+        sendWelcomeMessage(clientChannel);
+        return connection;
+    }
+    
+    /**
+     * Arm the idle check for a connection on its loop's timer wheel
+     */
+    private void scheduleIdleCheck(PlayerConnection connection, long delayMillis) {
+        connection.setIdleTimeout(connection.getLoop().schedule(() -> checkIdle(connection), delayMillis));
+    }
+    
+    /**
+     * Reap the connection if nothing was heard for the idle timeout. A connection
+     * quiet for a ping interval gets one ping, which any reply answers; otherwise
+     * re-arm for the rest of the window. Inbound frames only touch a timestamp,
+     * never the wheel.
+     */
+    private void checkIdle(PlayerConnection connection) {
+        long now = System.currentTimeMillis();
+        long idleMillis = now - connection.getLastActivity();
+        if (!connection.isConnectionAlive(idleTimeoutMillis)) {
+            connection.setIdleTimeout(null);
+            reapedConnections.increment();
+            logger.info("Reaping idle client {} (silent for {} ms)", connection.getPlayerId(), idleMillis);
+            handleClientDisconnect(connection.getChannel());
+            return;
+        }
+        
+        long pingInterval = currentPingInterval();
+        if (pingInterval > 0 && idleMillis >= pingInterval && connection.getLastPingSent() <= connection.getLastActivity()) {
+            // One ping per quiet spell; a reply within the same millisecond still starts a new one
+            connection.setLastPingSent(now);
+            pingsSent.increment();
+            sendFrame(connection, format -> pingFrames[format.ordinal()].duplicate(), OutboundQueue.Kind.CONTROL, null);
         }
+        scheduleIdleCheck(connection, nextIdleCheck(idleMillis, pingInterval));
+    }
+    
+    /**
+     * Delay until a ping is due, or once pinged, until the idle timeout
+     */
+    private long nextIdleCheck(long idleMillis, long pingInterval) {
+        return idleMillis < pingInterval ? pingInterval - idleMillis : idleTimeoutMillis - idleMillis;
+    }
+    
+    /**
+     * Ping interval for the current load: the base interval on an idle server,
+     * stretched linearly towards the maximum as connections approach the admission
+     * limit, so ping traffic grows slower than the connection count. 0 means no
+     * pings, also when the interval would not leave the client time to answer.
+     */
+    private long currentPingInterval() {
+        if (pingIntervalMillis <= 0) {
+            return 0;
+        }
+        double load = maxConnections > 0 ? Math.min(1.0, (double) playerConnections.size() / maxConnections) : 0;
+        long interval = pingIntervalMillis + (long) (Math.max(0, pingIntervalMaxMillis - pingIntervalMillis) * load);
+        return interval < idleTimeoutMillis ? interval : 0;
+    }
+    
+    /**
+     * Encode the server ping once per wire format: a bare HEARTBEAT
+     */
+    private ByteBuffer[] encodePingFrames() {
+        ByteBuffer[] frames = new ByteBuffer[PlayerConnection.WireFormat.values().length];
+        frames[PlayerConnection.WireFormat.JSON.ordinal()] =
+                FrameCodec.encode("{\"type\":\"HEARTBEAT\"}", framingMode).asReadOnlyBuffer();
+        
+        GameMessage ping = new GameMessage();
+        ping.setType("HEARTBEAT");
+        ping.setTimestamp(0);
+        frames[PlayerConnection.WireFormat.BINARY.ordinal()] = encodeFrame(ping, PlayerConnection.WireFormat.BINARY);
+        return frames;
     }
     
     /**
      * Handle reading data from clients
      */
-    private void handleRead(SelectionKey key) {
+    void handleRead(SelectionKey key) {
         SocketChannel clientChannel = (SocketChannel) key.channel();
         PlayerConnection connection = playerConnections.get(clientChannel);
         
         if (connection == null) return;
         
         try {
-            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-            int bytesRead = clientChannel.read(buffer);
+            FrameCodec codec = connection.getFrameCodec();
+            int bytesRead = clientChannel.read(codec.readBuffer());
             
             if (bytesRead == -1) {
                 // Client disconnected
@@ -151,12 +745,8 @@ public class TcpGameServer {
             }
             
             if (bytesRead > 0) {
-                buffer.flip();
-                byte[] data = new byte[buffer.remaining()];
-                buffer.get(data);
-                
-                String message = new String(data, "UTF-8");
-                processGameMessage(connection, message);
+                // One read may carry several messages, or only part of one
+                codec.decode((buffer, offset, length) -> processGameMessage(connection, buffer, offset, length));
             }
             
         } catch (IOException e) {
@@ -168,74 +758,316 @@ public class TcpGameServer {
     /**
      * Handle writing data to clients
      */
-    private void handleWrite(SelectionKey key) {
+    void handleWrite(SelectionKey key) {
         SocketChannel clientChannel = (SocketChannel) key.channel();
         PlayerConnection connection = playerConnections.get(clientChannel);
         
-        if (connection != null && connection.hasDataToWrite()) {
-            try {
-                connection.writeData();
-                if (!connection.hasDataToWrite()) {
-                    key.interestOps(SelectionKey.OP_READ);
-                }
-            } catch (IOException e) {
-                logger.error("Error writing to client", e);
-                handleClientDisconnect(clientChannel);
+        if (connection != null) {
+            flushConnection(connection, key);
+        }
+    }
+    
+    /**
+     * Drain the outbound queue on the worker thread. OP_WRITE stays armed only
+     * while the kernel send buffer is full.
+     */
+    void flushConnection(PlayerConnection connection, SelectionKey key) {
+        try {
+            boolean drained = connection.writeData();
+            boolean writeArmed = (key.interestOps() & SelectionKey.OP_WRITE) != 0;
+            if (drained == writeArmed) {
+                key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
             }
+        } catch (IOException e) {
+            logger.error("Error writing to client", e);
+            handleClientDisconnect(connection.getChannel());
         }
     }
     
     /**
      * Process game messages from clients
      */
-    private void processGameMessage(PlayerConnection connection, String message) {
+    void processGameMessage(PlayerConnection connection, ByteBuffer buffer, int offset, int length) {
         try {
-            GameMessage gameMessage = objectMapper.readValue(message, GameMessage.class);
+            ByteBuffer frame = buffer.slice(offset, length);
+            // Any frame proves the client is alive, whether or not it is over its limits
+            connection.updateLastActivity();
             
-            switch (gameMessage.getType()) {
-                case "JOIN_ROOM":
-                    handleJoinRoom(connection, gameMessage);
-                    break;
-                case "GAME_MOVE":
-                    handleGameMove(connection, gameMessage);
-                    break;
-                case "CHAT_MESSAGE":
-                    handleChatMessage(connection, gameMessage);
-                    break;
-                case "HEARTBEAT":
-                    handleHeartbeat(connection);
-                    break;
-                default:
-                    logger.warn("Unknown message type: {}", gameMessage.getType());
+            ClientMessage message;
+            try {
+                message = connection.getInboundFormat() == PlayerConnection.WireFormat.BINARY
+                        ? binaryCodec.decode(frame)
+                        : messageRouter.decodeJson(frame);
+            } catch (IOException | RuntimeException e) {
+                // Malformed JSON, or a binary frame cut short (BufferUnderflowException)
+                rejectBadFrame(connection, "malformed frame", e);
+                return;
+            }
+            if (message == null) {
+                rejectBadFrame(connection, "no message type", null);
+                return;
+            }
+            
+            if (!connection.tryAcquire(message.type())) {
+                // Over the limit: dropped and counted, never logged per message
+                rateLimitedMessages[message.type().ordinal()].increment();
+                return;
+            }
+            
+            if (!messageRouter.dispatch(connection, message)) {
+                rejectBadFrame(connection, "unsupported type " + message.type(), null);
             }
             
         } catch (Exception e) {
-            logger.error("Error processing game message", e);
+            // A handler failing on what the client sent is counted like any other bad frame
+            rejectBadFrame(connection, "handler failed", e);
+        }
+    }
+    
+    /**
+     * Count a frame that could not be handled; only the first of each connection is
+     * logged (at debug), and a connection that keeps sending them is closed
+     */
+    private void rejectBadFrame(PlayerConnection connection, String reason, Exception cause) {
+        badFrames.increment();
+        int count = connection.recordBadFrame();
+        if (count == 1) {
+            logger.debug("Bad frame from {}: {}", connection.getPlayerId(), reason, cause);
+        }
+        if (maxBadFrames > 0 && count >= maxBadFrames && connection.markClosing()) {
+            badFrameDisconnects.increment();
+            logger.debug("Disconnecting {} after {} bad frames", connection.getPlayerId(), count);
+            connection.getLoop().execute(() -> handleClientDisconnect(connection.getChannel()));
+        }
+    }
+    
+    /**
+     * Protocol negotiation: a native client asks for the binary encoding
+     */
+    private void handleHello(PlayerConnection connection, HelloMessage message) {
+        boolean binary = BinaryMessageCodec.PROTOCOL_NAME.equalsIgnoreCase(message.protocol());
+        
+        GameMessage ack = new GameMessage();
+        ack.setType("HELLO_ACK");
+        ack.setContent(binary ? BinaryMessageCodec.PROTOCOL_NAME : "json");
+        if (!binary || connection.getInboundFormat() == PlayerConnection.WireFormat.BINARY) {
+            sendToConnection(connection, ack);
+            return;
+        }
+        
+        // The client's next frame is already binary, so the reader switches at once
+        connection.switchInboundToBinary();
+        
+        // The ack is the last JSON frame: queueing it and switching is one step on
+        // the loop, and a broadcast that encoded JSON meanwhile is encoded again
+        ByteBuffer ackFrame = encodeFrame(ack, PlayerConnection.WireFormat.JSON);
+        if (ackFrame == null) {
+            return;
+        }
+        ConnectionLoop loop = connection.getLoop();
+        Runnable switchOutbound = () -> {
+            if (queued(connection, connection.switchOutboundToBinary(ackFrame))) {
+                loop.flush(connection);
+            }
+            logger.info("Connection switched to {} protocol", BinaryMessageCodec.PROTOCOL_NAME);
+        };
+        if (loop.inEventLoop()) {
+            switchOutbound.run();
+        } else {
+            loop.execute(switchOutbound);
         }
     }
     
     /**
      * Handle client joining a game room
      */
-    private void handleJoinRoom(PlayerConnection connection, GameMessage message) {
-        String roomId = message.getRoomId();
-        String playerId = message.getPlayerId();
+    private void handleJoinRoom(PlayerConnection connection, JoinRoomMessage message) {
+        String roomId = message.roomId();
+        String playerId = message.playerId();
+        
+        // A connection holds one seat: joining another room leaves the current one
+        String previousRoomId = connection.getCurrentRoom();
+        GameRoom previousRoom = previousRoomId != null ? gameRooms.get(previousRoomId) : null;
+        if (previousRoom != null) {
+            leaveRoom(connection, previousRoom);
+        }
         
-        GameRoom room = gameRooms.computeIfAbsent(roomId, k -> new GameRoom(roomId));
-        room.addPlayer(connection);
         connection.setCurrentRoom(roomId);
         connection.setPlayerId(playerId);
+        sessionIds.acquire(SessionIdRegistry.Kind.PLAYER, playerId);
+        
+        // compute() is atomic per key, so a concurrent disconnect on another
+        // worker cannot drop the room between creation and join
+        gameRooms.compute(roomId, (id, room) -> {
+            GameRoom target = room;
+            if (target == null) {
+                target = new GameRoom(id, roomPool, timerService, roundTimings, candidateIndex, this::broadcastRoundResult);
+                sessionIds.acquire(SessionIdRegistry.Kind.ROOM, id);
+            }
+            target.addPlayer(connection);
+            return target;
+        });
+        
+        announceSessionIds(gameRooms.get(roomId), connection);
         
         // Broadcast to room that player joined
         broadcastToRoom(roomId, createSystemMessage("Player " + playerId + " joined the room"));
         
+        if (resumeGraceMillis > 0) {
+            sendToConnection(connection, createResumeToken(resumeRegistry.issue(connection, roomId), roomId, playerId));
+        }
+        
         logger.info("Player {} joined room {}", playerId, roomId);
     }
     
+    /**
+     * Handle a reconnect carrying a resume token: rebind the held seat to this
+     * connection without any join/leave broadcast and without touching the round
+     */
+    private void handleResume(PlayerConnection connection, ResumeMessage message) {
+        ResumeRegistry.Resumed resumed = connection.getCurrentRoom() == null
+                ? resumeRegistry.resume(message.token(), connection)
+                : null;
+        GameRoom room = resumed != null ? gameRooms.get(resumed.session().getRoomId()) : null;
+        if (room == null) {
+            GameMessage failed = new GameMessage();
+            failed.setType("RESUME_FAILED");
+            failed.setContent("Session expired, please join the room again");
+            failed.setTimestamp(System.currentTimeMillis());
+            sendToConnection(connection, failed);
+            return;
+        }
+        
+        ResumeRegistry.Session session = resumed.session();
+        connection.setPlayerId(session.getPlayerId());
+        connection.setCurrentRoom(session.getRoomId());
+        room.resumePlayer(connection);
+        
+        PlayerConnection previous = resumed.previous();
+        if (previous != null) {
+            // The old connection is half-open; close it quietly, the seat has already moved
+            previous.getLoop().execute(() -> handleClientDisconnect(previous.getChannel()));
+        }
+        
+        sendToConnection(connection, createResumeToken(session.getToken(), session.getRoomId(), session.getPlayerId()));
+        sendRoomIds(room, connection);
+        resumedSessions.increment();
+        logger.info("Player {} resumed room {}", session.getPlayerId(), session.getRoomId());
+    }
+    
+    private GameMessage createResumeToken(String token, String roomId, String playerId) {
+        GameMessage message = new GameMessage();
+        message.setType("RESUME_TOKEN");
+        message.setRoomId(roomId);
+        message.setPlayerId(playerId);
+        message.setContent(token);
+        message.setTimestamp(System.currentTimeMillis());
+        return message;
+    }
+    
+    /**
+     * Release a held seat nobody resumed in time; this is the deferred "left"
+     */
+    private void releaseSeat(ResumeRegistry.Session session) {
+        if (releaseHeldSeat(session)) {
+            expiredSeats.increment();
+        }
+    }
+    
+    /**
+     * @return false if the seat was resumed or released meanwhile
+     */
+    private boolean releaseHeldSeat(ResumeRegistry.Session session) {
+        String roomId = session.getRoomId();
+        GameRoom room = gameRooms.get(roomId);
+        if (room == null || !room.releaseSuspendedPlayer(session.getPlayerId())) {
+            return false;
+        }
+        sessionIds.release(SessionIdRegistry.Kind.PLAYER, session.getPlayerId());
+        broadcastToRoom(roomId, createSystemMessage("Player " + session.getPlayerId() + " left the room"));
+        removeRoomIfEmpty(roomId);
+        return true;
+    }
+    
+    /**
+     * Take a connection's seat out of its room for good and tell the others
+     */
+    private void leaveRoom(PlayerConnection connection, GameRoom room) {
+        String roomId = room.getRoomId();
+        room.removePlayer(connection);
+        sessionIds.release(SessionIdRegistry.Kind.PLAYER, connection.getPlayerId());
+        broadcastToRoom(roomId, createSystemMessage("Player " + connection.getPlayerId() + " left the room"));
+        removeRoomIfEmpty(roomId);
+    }
+    
+    /**
+     * Drop a room once nobody is in it, freeing its session id. Atomic per key,
+     * since a join may be racing on another worker.
+     */
+    private void removeRoomIfEmpty(String roomId) {
+        gameRooms.computeIfPresent(roomId, (id, current) -> {
+            if (!current.isEmpty()) {
+                return current;
+            }
+            sessionIds.release(SessionIdRegistry.Kind.ROOM, id);
+            return null;
+        });
+    }
+    
+    /**
+     * Tell binary clients which numeric ids stand for the room and its players
+     */
+    private void announceSessionIds(GameRoom room, PlayerConnection joiner) {
+        if (room == null) {
+            return;
+        }
+        
+        // Everyone on the binary protocol learns the new player's id
+        ByteBuffer joinerId = encodeFrame(createIdAssign(SessionIdRegistry.Kind.PLAYER, joiner.getPlayerId()),
+                PlayerConnection.WireFormat.BINARY);
+        if (joinerId == null) {
+            return;
+        }
+        Function<PlayerConnection.WireFormat, ByteBuffer> binaryOnly =
+                format -> format == PlayerConnection.WireFormat.BINARY ? joinerId.duplicate() : null;
+        for (PlayerConnection connection : room.getPlayers()) {
+            sendFrame(connection, binaryOnly, OutboundQueue.Kind.CONTROL, null);
+        }
+        
+        sendRoomIds(room, joiner);
+    }
+    
+    /**
+     * A binary joiner learns the ids of the room and the players already there
+     */
+    private void sendRoomIds(GameRoom room, PlayerConnection joiner) {
+        if (joiner.getInboundFormat() == PlayerConnection.WireFormat.BINARY) {
+            sendToConnection(joiner, createIdAssign(SessionIdRegistry.Kind.ROOM, room.getRoomId()));
+            for (PlayerConnection connection : room.getPlayers()) {
+                if (connection != joiner && connection.getPlayerId() != null) {
+                    sendToConnection(joiner, createIdAssign(SessionIdRegistry.Kind.PLAYER, connection.getPlayerId()));
+                }
+            }
+        }
+    }
+    
+    private GameMessage createIdAssign(SessionIdRegistry.Kind kind, String name) {
+        GameMessage message = new GameMessage();
+        message.setType("ID_ASSIGN");
+        message.setContent(kind.name());
+        message.setData(sessionIds.idFor(kind, name));
+        if (kind == SessionIdRegistry.Kind.PLAYER) {
+            message.setPlayerId(name);
+        } else {
+            message.setRoomId(name);
+        }
+        return message;
+    }
+    
     /**
      * Handle game moves (word submissions)
      */
-    private void handleGameMove(PlayerConnection connection, GameMessage message) {
+    private void handleGameMove(PlayerConnection connection, GameMoveMessage message) {
         String roomId = connection.getCurrentRoom();
         if (roomId != null) {
             GameRoom room = gameRooms.get(roomId);
@@ -243,8 +1075,8 @@ public class TcpGameServer {
                 // Process game logic
                 room.processGameMove(connection, message);
                 
-                // Broadcast move to other players
-                broadcastToRoom(roomId, message, connection);
+                // Broadcast move to other players, as sent by this connection's seat
+                broadcastToRoom(roomId, message.toGameMessage(roomId, connection.getPlayerId()), connection);
             }
         }
     }
@@ -252,25 +1084,52 @@ public class TcpGameServer {
     /**
      * Handle chat messages
      */
-    private void handleChatMessage(PlayerConnection connection, GameMessage message) {
+    private void handleChatMessage(PlayerConnection connection, ChatMessage message) {
         String roomId = connection.getCurrentRoom();
-        if (roomId != null) {
-            broadcastToRoom(roomId, message);
+        ChatBatcher<ChatMessage.Line> batcher = chatBatcher;
+        if (roomId != null && batcher != null) {
+            batcher.add(roomId, message.toLine(connection.getPlayerId()));
         }
     }
     
     /**
-     * Handle heartbeat for connection monitoring
+     * Send one tick's chat lines of a room as a single CHAT_BATCH frame
      */
-    private void handleHeartbeat(PlayerConnection connection) {
-        connection.updateLastHeartbeat();
-        
-        // Send heartbeat response
-        GameMessage response = new GameMessage();
-        response.setType("HEARTBEAT_ACK");
-        response.setTimestamp(System.currentTimeMillis());
-        
-        sendToConnection(connection, response);
+    private void broadcastChatBatch(String roomId, List<ChatMessage.Line> lines) {
+        GameMessage batch = new GameMessage();
+        batch.setType(MessageType.CHAT_BATCH.name());
+        batch.setRoomId(roomId);
+        batch.setData(lines);
+        broadcastToRoom(roomId, batch);
+    }
+    
+    /**
+     * Send a finished round's result to the room; it is encoded once per wire format
+     */
+    private void broadcastRoundResult(String roomId, RoundResult result) {
+        GameMessage message = new GameMessage();
+        message.setType(MessageType.ROUND_RESULT.name());
+        message.setRoomId(roomId);
+        message.setTimestamp(result.endedAt());
+        message.setData(result);
+        roundResults.increment();
+        broadcastToRoom(roomId, message);
+    }
+    
+    /**
+     * Reply with the room's recent round results, oldest first
+     */
+    private void handleRoundHistory(PlayerConnection connection, RoundHistoryMessage message) {
+        String roomId = connection.getCurrentRoom();
+        GameRoom room = roomId != null ? gameRooms.get(roomId) : null;
+        if (room == null) {
+            return;
+        }
+        GameMessage reply = new GameMessage();
+        reply.setType(MessageType.ROUND_HISTORY.name());
+        reply.setRoomId(roomId);
+        reply.setData(room.getRoundHistory());
+        sendToConnection(connection, reply);
     }
     
     /**
@@ -282,12 +1141,56 @@ public class TcpGameServer {
     
     private void broadcastToRoom(String roomId, GameMessage message, PlayerConnection excludeConnection) {
         GameRoom room = gameRooms.get(roomId);
-        if (room != null) {
-            for (PlayerConnection connection : room.getPlayers()) {
-                if (connection != excludeConnection) {
-                    sendToConnection(connection, message);
-                }
+        if (room == null) {
+            return;
+        }
+        
+        // Serialize at most once per wire format; every recipient gets its own view of the same bytes
+        OutboundQueue.Kind kind = frameKind(message);
+        Object coalesceKey = kind == OutboundQueue.Kind.STATE ? message.getPlayerId() : null;
+        ByteBuffer[] encoded = new ByteBuffer[PlayerConnection.WireFormat.values().length];
+        Function<PlayerConnection.WireFormat, ByteBuffer> frames = format -> {
+            if (encoded[format.ordinal()] == null) {
+                encoded[format.ordinal()] = encodeFrame(message, format);
+            }
+            ByteBuffer frame = encoded[format.ordinal()];
+            return frame != null ? frame.duplicate() : null;
+        };
+        for (PlayerConnection connection : room.getPlayers()) {
+            if (connection != excludeConnection) {
+                sendFrame(connection, frames, kind, coalesceKey);
+            }
+        }
+    }
+    
+    /**
+     * Classify a message for the backpressure policy
+     */
+    private static OutboundQueue.Kind frameKind(GameMessage message) {
+        switch (MessageType.fromName(message.getType())) {
+            case CHAT_MESSAGE:
+            case CHAT_BATCH:
+                return OutboundQueue.Kind.CHAT;
+            case GAME_MOVE:
+                return OutboundQueue.Kind.STATE;
+            default:
+                return OutboundQueue.Kind.CONTROL;
+        }
+    }
+    
+    /**
+     * Serialize a message into an immutable, ready-to-write frame
+     */
+    private ByteBuffer encodeFrame(GameMessage message, PlayerConnection.WireFormat wireFormat) {
+        try {
+            if (wireFormat == PlayerConnection.WireFormat.BINARY) {
+                return binaryCodec.encodeFrame(message).asReadOnlyBuffer();
             }
+            byte[] json = objectMapper.writeValueAsBytes(message);
+            return FrameCodec.encode(json, framingMode).asReadOnlyBuffer();
+        } catch (Exception e) {
+            logger.error("Error encoding message {}", message.getType(), e);
+            return null;
         }
     }
     
@@ -295,19 +1198,81 @@ public class TcpGameServer {
      * Send message to specific connection
      */
     private void sendToConnection(PlayerConnection connection, GameMessage message) {
+        OutboundQueue.Kind kind = frameKind(message);
+        sendFrame(connection, format -> encodeFrame(message, format), kind,
+                kind == OutboundQueue.Kind.STATE ? message.getPlayerId() : null);
+    }
+    
+    /**
+     * Queue a frame in the connection's wire format and get it flushed by the connection's loop
+     *
+     * @param frames encodes the frame for a wire format; null skips the connection
+     */
+    private void sendFrame(PlayerConnection connection, Function<PlayerConnection.WireFormat, ByteBuffer> frames,
+            OutboundQueue.Kind kind, Object coalesceKey) {
         try {
-            String json = objectMapper.writeValueAsString(message);
-            connection.queueMessage(json);
+            OutboundQueue.Result result;
+            do {
+                // Retried at most once: a connection only ever switches from JSON to binary
+                PlayerConnection.WireFormat format = connection.getWireFormat();
+                ByteBuffer frame = frames.apply(format);
+                if (frame == null) {
+                    return;
+                }
+                result = connection.queueFrame(frame, format, kind, coalesceKey);
+            } while (result == OutboundQueue.Result.STALE);
+            if (!queued(connection, result)) {
+                return;
+            }
             
-            // Register for write operation
-            SelectionKey key = connection.getChannel().keyFor(selector);
-            if (key != null) {
-                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
-                selector.wakeup();
+            ConnectionLoop loop = connection.getLoop();
+            if (loop.inEventLoop()) {
+                // Already on the owning thread: write straight away
+                loop.flush(connection);
+            } else if (connection.scheduleFlush()) {
+                // One flush command per burst, however many frames it carries
+                loop.execute(() -> {
+                    connection.flushStarted();
+                    loop.flush(connection);
+                });
             }
             
         } catch (Exception e) {
-            logger.error("Error sending message to connection", e);
+            logger.error("Error sending frame to connection", e);
+        }
+    }
+    
+    /**
+     * Count a frame the queue did not take
+     *
+     * @return true if the frame was queued and needs a flush
+     */
+    private boolean queued(PlayerConnection connection, OutboundQueue.Result result) {
+        switch (result) {
+            case DROPPED:
+                droppedFrames.increment();
+                return false;
+            case COALESCED:
+                // Replaced a frame that is already waiting for a flush
+                coalescedFrames.increment();
+                return false;
+            case OVERFLOW:
+                closeSlowConsumer(connection);
+                return false;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Disconnect a client that cannot keep up; runs on its loop like any other disconnect
+     */
+    private void closeSlowConsumer(PlayerConnection connection) {
+        if (connection.markClosing()) {
+            slowConsumerDisconnects.increment();
+            logger.warn("Disconnecting slow consumer {} ({} frames queued)",
+                    connection.getPlayerId(), connection.getOutboundQueue().size());
+            connection.getLoop().execute(() -> handleClientDisconnect(connection.getChannel()));
         }
     }
     
@@ -325,27 +1290,29 @@ public class TcpGameServer {
     /**
      * Handle client disconnect
      */
-    private void handleClientDisconnect(SocketChannel clientChannel) {
+    void handleClientDisconnect(SocketChannel clientChannel) {
         try {
             PlayerConnection connection = playerConnections.remove(clientChannel);
             if (connection != null) {
                 String roomId = connection.getCurrentRoom();
                 if (roomId != null) {
                     GameRoom room = gameRooms.get(roomId);
-                    if (room != null) {
-                        room.removePlayer(connection);
-                        broadcastToRoom(roomId, createSystemMessage("Player " + connection.getPlayerId() + " left the room"));
-                        
-                        // Remove empty rooms
-                        if (room.isEmpty()) {
-                            gameRooms.remove(roomId);
+                    if (room != null && !connection.isReplaced()) {
+                        // Hold the seat quietly, except on a planned stop; releaseSeat broadcasts "left" if no resume comes
+                        boolean held = isRunning && resumeGraceMillis > 0 && resumeRegistry.suspend(connection,
+                                resumeGraceMillis, () -> room.suspendPlayer(connection), this::releaseSeat);
+                        if (!held) {
+                            leaveRoom(connection, room);
                         }
                     }
                 }
                 
+                connection.cancelIdleTimeout();
+                connection.getLoop().onConnectionClosed(connection);
                 logger.info("Client disconnected: {}", connection.getPlayerId());
             }
             
+            admission.release(clientChannel);
             clientChannel.close();
             
         } catch (IOException e) {
@@ -367,19 +1334,34 @@ public class TcpGameServer {
     /**
      * Stop the TCP server
      */
-    public void stopServer() {
+    public synchronized void stopServer() {
         isRunning = false;
         
         try {
             if (selector != null) {
                 selector.close();
             }
-            if (serverChannel != null) {
-                serverChannel.close();
+            for (ServerSocketChannel listener : listeners) {
+                listener.close();
             }
             
-            threadPool.shutdown();
+            drainConnections();
+            releaseHeldSeats();
+            
+            for (SelectorWorker worker : workers) {
+                worker.stop();
+            }
             
+            if (virtualThreadEngine != null) {
+                virtualThreadEngine.stop();
+                virtualThreadEngine = null;
+            }
+            
+            if (threadPool != null) {
+                threadPool.shutdown();
+            }
+            
+            stopRoomServices();
             logger.info("TCP Game Server stopped");
             
         } catch (IOException e) {
@@ -387,6 +1369,90 @@ public class TcpGameServer {
         }
     }
     
+    /**
+     * Let every connection's loop write out what it has queued, for at most the
+     * drain timeout, then close the connections on their loops. Nobody can
+     * resume once the server is stopped, so their seats are released, and so
+     * are the seats still held for earlier disconnects; no expiry stays pending.
+     */
+    private void drainConnections() {
+        if (playerConnections.isEmpty()) {
+            return;
+        }
+        int connections = playerConnections.size();
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        for (PlayerConnection connection : playerConnections.values()) {
+            sendToConnection(connection, createSystemMessage("Server is shutting down"));
+        }
+        boolean flushed = awaitUntil(() -> playerConnections.values().stream().noneMatch(PlayerConnection::hasDataToWrite),
+                deadline);
+        
+        for (PlayerConnection connection : playerConnections.values()) {
+            connection.getLoop().execute(() -> handleClientDisconnect(connection.getChannel()));
+        }
+        awaitUntil(playerConnections::isEmpty, System.currentTimeMillis() + CLOSE_WAIT_MILLIS);
+        logger.info("Drained {} connections ({})", connections, flushed ? "all queues flushed" : "drain timed out");
+    }
+    
+    /**
+     * Stop what rooms run on, once the drain has emptied them: chat ticks, the
+     * room pool (after the mailbox tasks already queued) and the shared timers.
+     * The next start creates them again.
+     */
+    private void stopRoomServices() {
+        if (chatBatcher != null) {
+            chatBatcher.shutdown();
+            chatBatcher = null;
+        }
+        gameRooms.clear();
+        if (roomPool != null) {
+            roomPool.shutdown();
+            roomPool = null;
+        }
+        timerService.shutdown();
+    }
+    
+    /**
+     * Release the seats held for resume and forget every resume token
+     */
+    private void releaseHeldSeats() {
+        for (ResumeRegistry.Session session : resumeRegistry.clear()) {
+            releaseHeldSeat(session);
+        }
+    }
+    
+    private static boolean awaitUntil(BooleanSupplier condition, long deadline) {
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(DRAIN_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Live words-remaining count of every player in a room's current round
+     *
+     * @return null if there is no such room
+     */
+    public CompletableFuture<Map<String, Integer>> getWordsRemaining(String roomId) {
+        GameRoom room = gameRooms.get(roomId);
+        return room != null ? room.getWordsRemaining() : null;
+    }
+    
+    /**
+     * Configured TCP port (wordle.tcp.port)
+     */
+    public int getPort() {
+        return port;
+    }
+    
     /**
      * Get server statistics
      */
@@ -394,7 +1460,76 @@ public class TcpGameServer {
         Map<String, Object> stats = new HashMap<>();
         stats.put("connectedPlayers", playerConnections.size());
         stats.put("activeRooms", gameRooms.size());
-        stats.put("serverPort", TCP_PORT);
+        stats.put("serverPort", port);
+        stats.put("listenerShards", listeners.size());
+        stats.put("framing", framingMode.name());
+        stats.put("engine", engine.name());
+        if (virtualThreadEngine != null) {
+            stats.put("virtualThreads", virtualThreadEngine.isVirtual());
+        }
+        stats.put("workerSelectors", workers.size());
+        stats.put("pendingTimers", timerService.getPendingCount());
+        stats.put("roomMailboxBacklog", gameRooms.values().stream().mapToInt(GameRoom::getPendingTasks).sum());
+        stats.put("binaryConnections", playerConnections.values().stream()
+                .filter(connection -> connection.getWireFormat() == PlayerConnection.WireFormat.BINARY)
+                .count());
+        stats.put("sessionIds", sessionIds.size());
+        
+        // Outbound queues and backpressure
+        int queuedFrames = 0;
+        int maxQueueDepth = 0;
+        int congestedConnections = 0;
+        for (PlayerConnection connection : playerConnections.values()) {
+            OutboundQueue queue = connection.getOutboundQueue();
+            int depth = queue.size();
+            queuedFrames += depth;
+            maxQueueDepth = Math.max(maxQueueDepth, depth);
+            if (queue.isCongested()) {
+                congestedConnections++;
+            }
+        }
+        stats.put("outboundPolicy", outboundPolicy.name());
+        stats.put("queuedFrames", queuedFrames);
+        stats.put("maxQueueDepth", maxQueueDepth);
+        stats.put("congestedConnections", congestedConnections);
+        stats.put("droppedFrames", droppedFrames.sum());
+        stats.put("coalescedFrames", coalescedFrames.sum());
+        stats.put("slowConsumerDisconnects", slowConsumerDisconnects.sum());
+        stats.put("idleTimeoutMs", idleTimeoutMillis);
+        stats.put("reapedConnections", reapedConnections.sum());
+        stats.put("badFrames", badFrames.sum());
+        stats.put("badFrameDisconnects", badFrameDisconnects.sum());
+        stats.put("pingIntervalMs", currentPingInterval());
+        stats.put("pingsSent", pingsSent.sum());
+        ChatBatcher<ChatMessage.Line> batcher = chatBatcher;
+        if (batcher != null) {
+            stats.put("chatBatches", batcher.getDeliveredBatches());
+            stats.put("chatLines", batcher.getDeliveredLines());
+        }
+        if (admission != null) {
+            stats.put("admittedConnections", admission.getConnections());
+            stats.put("rejectedAcceptRate", admission.getRejected(AdmissionController.Rejection.ACCEPT_RATE));
+            stats.put("rejectedMaxConnections", admission.getRejected(AdmissionController.Rejection.MAX_CONNECTIONS));
+            stats.put("rejectedMaxPerIp", admission.getRejected(AdmissionController.Rejection.MAX_PER_ADDRESS));
+        }
+        Map<String, Long> rateLimited = new HashMap<>();
+        for (MessageType type : MessageType.values()) {
+            long count = rateLimitedMessages[type.ordinal()].sum();
+            if (count > 0) {
+                rateLimited.put(type.name(), count);
+            }
+        }
+        stats.put("rateLimitedMessages", rateLimited);
+        stats.put("resumeGraceMs", resumeGraceMillis);
+        stats.put("resumableSessions", resumeRegistry.size());
+        stats.put("suspendedSeats", resumeRegistry.getSuspendedCount());
+        stats.put("resumedSessions", resumedSessions.sum());
+        stats.put("expiredSeats", expiredSeats.sum());
+        stats.put("roundResults", roundResults.sum());
+        stats.put("connectionsPerWorker", workers.stream().map(SelectorWorker::getConnectionCount).toList());
+        stats.put("bufferAllocations", bufferPool.getAllocations());
+        stats.put("bufferReuses", bufferPool.getReuses());
+        stats.put("pooledBuffers", bufferPool.getPooledBuffers());
         stats.put("isRunning", isRunning);
         
         return stats;
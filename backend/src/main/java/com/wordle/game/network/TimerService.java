@@ -0,0 +1,128 @@
+package com.wordle.game.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Timer dùng chung cho phòng chơi và session
+ * Áp dụng kiến thức: Hashed Timing Wheel, Shared Timer Thread, Cancellation
+ *
+ * One daemon thread drives a {@link TimingWheel} for the timers that do not
+ * belong to a connection loop: round start delays, round time limits, the
+ * gap between rounds and resume grace periods. Scheduling and cancelling
+ * are O(1) and safe from any thread. Tasks run on the timer thread but
+ * outside its lock, so they may take other locks or schedule again; they
+ * should only hand work off, typically to a room mailbox.
+ */
+public class TimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerService.class);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 1024;
+
+    /**
+     * Handle for a scheduled task
+     */
+    public final class Handle {
+        private final Runnable task;
+        private TimingWheel.Timeout timeout;
+        private volatile boolean cancelled;
+
+        private Handle(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Make sure the task does not run; a no-op once it has started
+         */
+        public void cancel() {
+            cancelled = true;
+            synchronized (lock) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    private final Object lock = new Object();
+    private final TimingWheel wheel = new TimingWheel(TICK_MILLIS, WHEEL_SIZE, currentMillis());
+    private final List<Handle> due = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public TimerService(String name) {
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Run {@code task} on the timer thread once {@code delayMillis} have passed
+     */
+    public Handle schedule(Runnable task, long delayMillis) {
+        Handle handle = new Handle(task);
+        synchronized (lock) {
+            handle.timeout = wheel.schedule(() -> due.add(handle), delayMillis);
+        }
+        return handle;
+    }
+
+    private void run() {
+        List<Handle> fired = new ArrayList<>();
+        while (running) {
+            long waitMillis;
+            synchronized (lock) {
+                // The wheel only collects what is due; it runs below, without the lock
+                wheel.advance(currentMillis());
+                fired.addAll(due);
+                due.clear();
+                waitMillis = wheel.millisUntilNextTick(currentMillis());
+            }
+
+            for (Handle handle : fired) {
+                if (!handle.cancelled) {
+                    try {
+                        handle.task.run();
+                    } catch (RuntimeException e) {
+                        logger.error("Error running timer task on {}", thread.getName(), e);
+                    }
+                }
+            }
+            fired.clear();
+
+            try {
+                Thread.sleep(Math.max(1, waitMillis));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return wheel.getPendingCount();
+        }
+    }
+
+    /**
+     * Stop the timer thread; tasks still pending never run
+     */
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+    }
+
+    public boolean isShutdown() {
+        return !running;
+    }
+
+    /**
+     * Monotonic clock for the wheel
+     */
+    private static long currentMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
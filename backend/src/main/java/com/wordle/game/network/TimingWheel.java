@@ -0,0 +1,167 @@
+package com.wordle.game.network;
+
+/**
+ * Hashed Timing Wheel cho các timeout trên một event loop
+ * Áp dụng kiến thức: Hashed Timing Wheel, O(1) Timer Management, Intrusive Linked List
+ *
+ * Time is split into ticks of fixed length; each slot of the wheel holds a
+ * doubly linked list of the timeouts that fall into it. Scheduling and
+ * cancelling are O(1), and advancing one tick only looks at one slot, so
+ * the cost does not depend on how many timeouts are pending. Timeouts
+ * further away than one revolution carry a round count and stay in their
+ * slot until it reaches zero.
+ *
+ * Not thread-safe: the owning thread schedules, cancels and advances.
+ */
+public class TimingWheel {
+
+    /**
+     * Handle for a scheduled task
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private long remainingRounds;
+        private int slot = -1;
+        private Timeout prev;
+        private Timeout next;
+        private TimingWheel wheel;
+
+        private Timeout(TimingWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        /**
+         * Remove the task from the wheel if it has not run yet
+         */
+        public void cancel() {
+            if (wheel == null) {
+                return;
+            }
+            if (slot >= 0) {
+                wheel.unlink(this);
+            }
+            // Already taken off its slot and about to fire: just forget it
+            wheel = null;
+        }
+
+        public boolean isPending() {
+            return wheel != null;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final Timeout[] slots;
+    private long currentTick;
+    private long lastTickTime;
+    private int pending;
+
+    /**
+     * @param tickMillis resolution of the wheel
+     * @param wheelSize number of slots, rounded up to a power of two
+     */
+    public TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new Timeout[size];
+        this.lastTickTime = nowMillis;
+    }
+
+    /**
+     * Run {@code task} once at least {@code delayMillis} have passed
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(this, task);
+        // Round up, plus one for the part of the current tick already gone, so a task never fires early
+        long ticks = Math.max(0, (delayMillis + tickMillis - 1) / tickMillis) + 1;
+        long deadlineTick = currentTick + ticks;
+        timeout.remainingRounds = (ticks - 1) / slots.length;
+        link(timeout, (int) (deadlineTick & mask));
+        return timeout;
+    }
+
+    /**
+     * Fire every timeout that is due by {@code nowMillis}
+     *
+     * @return number of tasks run
+     */
+    public int advance(long nowMillis) {
+        int fired = 0;
+        while (nowMillis - lastTickTime >= tickMillis) {
+            lastTickTime += tickMillis;
+            currentTick++;
+            fired += expire((int) (currentTick & mask));
+        }
+        return fired;
+    }
+
+    private int expire(int slot) {
+        // Detach everything due first, so tasks may freely schedule or cancel other timeouts
+        Timeout due = null;
+        Timeout timeout = slots[slot];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                unlink(timeout);
+                timeout.wheel = this;
+                timeout.next = due;
+                due = timeout;
+            }
+            timeout = next;
+        }
+
+        int fired = 0;
+        while (due != null) {
+            timeout = due;
+            due = timeout.next;
+            timeout.next = null;
+            if (timeout.wheel != null) {
+                timeout.wheel = null;
+                timeout.task.run();
+                fired++;
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Milliseconds until the next tick is due, for the owner's select timeout
+     */
+    public long millisUntilNextTick(long nowMillis) {
+        return Math.max(0, lastTickTime + tickMillis - nowMillis);
+    }
+
+    public int getPendingCount() {
+        return pending;
+    }
+
+    private void link(Timeout timeout, int slot) {
+        timeout.slot = slot;
+        timeout.next = slots[slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        slots[slot] = timeout;
+        pending++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        timeout.wheel = null;
+        pending--;
+    }
+}
@@ -0,0 +1,41 @@
+package com.wordle.game.network;
+
+/**
+ * Token Bucket rate limiter
+ * Áp dụng kiến thức: Rate Limiting, Token Bucket Algorithm
+ *
+ * Holds up to {@code burst} tokens and refills continuously at
+ * {@code ratePerSecond}; each event takes one token. Refilling is computed
+ * lazily from the elapsed time, so an idle bucket costs nothing.
+ *
+ * Not thread-safe: each bucket belongs to one thread (a connection's reader,
+ * or the acceptor).
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, double burst) {
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Take one token if available
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -3,61 +3,123 @@ package com.wordle.game.network;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * UDP Server cho Fast Game Statistics & Leaderboard
- * Áp dụng kiến thức: UDP Protocol, Connectionless Communication
+ * Áp dụng kiến thức: UDP Protocol, Connectionless Communication, SO_REUSEPORT
+ *
+ * With wordle.udp.shards above one, that many datagram sockets are bound to
+ * the same port with SO_REUSEPORT and the kernel spreads clients across them
+ * by address hash. Each socket has its own thread blocked in receive, which
+ * only copies the datagram out and hands it to a bounded pool of handler
+ * threads, so a slow move analysis never delays PING or leaderboard
+ * replies. When the handler queue is full, datagrams are dropped (and
+ * counted), as the network would drop them. Replies go out on the socket
+ * the datagram came in on.
+ *
+ * PLAYER_MOVE replies carry a {@link MoveAnalyzer} analysis: the answers
+ * still possible given the player's guesses so far, the entropy of the
+ * guess and the most informative next guesses. A move with
+ * {@code "newGame": true}, a solved move or GAME_COMPLETED starts the
+ * player's next game from the full dictionary.
  */
 @Service
 public class UdpStatsServer {
     
     private static final Logger logger = LoggerFactory.getLogger(UdpStatsServer.class);
-    private static final int UDP_PORT = 8082;
     private static final int BUFFER_SIZE = 512;
     
-    private DatagramChannel udpChannel;
+    @Value("${wordle.udp.port:8082}")
+    private int port = 8082;
+    
+    /** Datagram sockets bound with SO_REUSEPORT, each with its own receive thread */
+    @Value("${wordle.udp.shards:1}")
+    private int shards = 1;
+    
+    /** Socket buffer sizes in bytes; 0 keeps the OS default */
+    @Value("${wordle.udp.so-rcvbuf:0}")
+    private int receiveBufferSize = 0;
+    
+    @Value("${wordle.udp.so-sndbuf:0}")
+    private int sendBufferSize = 0;
+    
+    /** Threads handling datagrams; 0 uses one per core, at least four */
+    @Value("${wordle.udp.handler-threads:0}")
+    private int handlerThreads = 0;
+    
+    /** Datagrams waiting for a handler before new ones are dropped */
+    @Value("${wordle.udp.handler-queue:1024}")
+    private int handlerQueue = 1024;
+    
+    /** Fork-join threads ranking next guesses; 0 uses one per core */
+    @Value("${wordle.analysis.parallelism:0}")
+    private int analysisParallelism = 0;
+    
+    /** Next guesses returned with each move analysis */
+    @Value("${wordle.analysis.top-guesses:5}")
+    private int topGuesses = 5;
+    
+    private volatile List<DatagramChannel> channels = List.of();
     private ExecutorService threadPool;
+    private ThreadPoolExecutor handlerPool;
     private ObjectMapper objectMapper;
+    private ForkJoinPool analysisPool;
+    private volatile MoveAnalyzer moveAnalyzer;
     private volatile boolean isRunning = false;
+    private final FeedbackMatrixService feedbackMatrixService;
+    private final LongAdder droppedDatagrams = new LongAdder();
+    private final LongAdder analyses = new LongAdder();
+    private final LongAdder analysisNanos = new LongAdder();
     
     // Statistics storage
     private final Map<String, PlayerStats> playerStats = new ConcurrentHashMap<>();
     private final Map<String, GameStatistics> gameStats = new ConcurrentHashMap<>();
     
-    public UdpStatsServer() {
-        this.threadPool = Executors.newFixedThreadPool(5);
+    public UdpStatsServer(FeedbackMatrixService feedbackMatrixService) {
         this.objectMapper = new ObjectMapper();
+        this.feedbackMatrixService = feedbackMatrixService;
     }
     
     /**
      * Start UDP Server for statistics
      */
-    public void startServer() {
+    public synchronized void startServer() {
+        startMoveAnalyzer();
+        startHandlerPool();
         try {
-            // Create UDP channel
-            udpChannel = DatagramChannel.open();
-            udpChannel.configureBlocking(false);
-            udpChannel.bind(new InetSocketAddress(UDP_PORT));
+            channels = openChannels();
             
             isRunning = true;
-            logger.info("UDP Stats Server started on port {}", UDP_PORT);
+            logger.info("UDP Stats Server started on port {} with {} socket(s)", port, channels.size());
             
-            // Start server loop
-            threadPool.submit(this::serverLoop);
+            // One blocking receive loop per socket; a rebind adds loops for the new sockets
+            threadPool = Executors.newCachedThreadPool();
+            startLoops(channels);
             
         } catch (IOException e) {
             logger.error("Failed to start UDP server", e);
@@ -65,30 +127,140 @@ public class UdpStatsServer {
     }
     
     /**
-     * Main UDP server loop
+     * Create the fork-join pool and the analyzer over the dictionary, using the
+     * feedback matrix when there is one
+     */
+    private void startMoveAnalyzer() {
+        if (analysisPool == null) {
+            int parallelism = analysisParallelism > 0 ? analysisParallelism : Runtime.getRuntime().availableProcessors();
+            analysisPool = new ForkJoinPool(parallelism);
+        }
+        FeedbackMatrix matrix = feedbackMatrixService.getMatrix();
+        moveAnalyzer = new MoveAnalyzer(WordleWords.guesses(), WordleWords.answers(), matrix, analysisPool, topGuesses);
+    }
+    
+    private void startHandlerPool() {
+        if (handlerPool != null && !handlerPool.isShutdown()) {
+            return;
+        }
+        // Analyses mostly wait on the fork-join pool, so a few spare threads keep PING answered meanwhile
+        int threads = handlerThreads > 0 ? handlerThreads : Math.max(4, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadIndex = new AtomicInteger();
+        handlerPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, handlerQueue)),
+                task -> new Thread(task, "udp-handler-" + threadIndex.getAndIncrement()),
+                (task, pool) -> droppedDatagrams.increment());
+    }
+    
+    /**
+     * Bind the configured number of datagram sockets on the UDP port. More than
+     * one needs SO_REUSEPORT; where the platform lacks it a single socket is used.
+     */
+    private List<DatagramChannel> openChannels() throws IOException {
+        List<DatagramChannel> opened = new ArrayList<>();
+        int count = Math.max(1, shards);
+        try {
+            for (int i = 0; i < count; i++) {
+                DatagramChannel channel = DatagramChannel.open();
+                opened.add(channel);
+                // Set even for one socket, so a rebind can bind beside it
+                if (channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                    channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                } else if (count > 1) {
+                    logger.warn("SO_REUSEPORT is not supported here; using a single UDP socket");
+                    count = 1;
+                }
+                channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                if (receiveBufferSize > 0) {
+                    channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+                }
+                if (sendBufferSize > 0) {
+                    channel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+                }
+                channel.bind(new InetSocketAddress(port));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Nothing is returned on failure, so close what was opened so far
+            for (DatagramChannel channel : opened) {
+                try {
+                    channel.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+        return opened;
+    }
+    
+    private void startLoops(List<DatagramChannel> started) {
+        for (DatagramChannel channel : started) {
+            threadPool.submit(() -> serverLoop(channel));
+        }
+    }
+    
+    /**
+     * Bind fresh sockets beside the current ones with SO_REUSEPORT, then close
+     * the old ones, so the port never stops receiving. Without SO_REUSEPORT the
+     * current sockets are kept.
      */
-    private void serverLoop() {
+    public synchronized void rebindChannels() {
+        if (!isRunning) {
+            startServer();
+            return;
+        }
+        
+        List<DatagramChannel> previous = channels;
+        if (!previous.stream().allMatch(UdpStatsServer::reusesPort)) {
+            logger.warn("SO_REUSEPORT is not available; keeping the current UDP sockets");
+            return;
+        }
+        try {
+            List<DatagramChannel> replacement = openChannels();
+            channels = replacement;
+            startLoops(replacement);
+            // Closing ends the old receive loops
+            closeChannels(previous);
+            logger.info("UDP sockets rebound on port {}", port);
+            
+        } catch (IOException e) {
+            logger.error("Failed to rebind UDP sockets", e);
+        }
+    }
+    
+    private static boolean reusesPort(DatagramChannel channel) {
+        try {
+            return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)
+                    && channel.getOption(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private void closeChannels(List<DatagramChannel> closed) throws IOException {
+        for (DatagramChannel channel : closed) {
+            channel.close();
+        }
+    }
+    
+    /**
+     * Receive loop of one socket; blocks in receive until a datagram arrives or
+     * the socket is closed. Only receives: handling runs on the handler pool.
+     */
+    private void serverLoop(DatagramChannel channel) {
         ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
         
         while (isRunning) {
             try {
                 buffer.clear();
-                SocketAddress clientAddress = udpChannel.receive(buffer);
-                
-                if (clientAddress != null) {
-                    buffer.flip();
-                    byte[] data = new byte[buffer.remaining()];
-                    buffer.get(data);
-                    
-                    String message = new String(data, "UTF-8");
-                    
-                    // Process in separate thread
-                    threadPool.submit(() -> processStatsMessage(clientAddress, message));
-                }
-                
-                Thread.sleep(10); // Prevent busy waiting
+                SocketAddress clientAddress = channel.receive(buffer);
+                buffer.flip();
+                ByteBuffer datagram = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), buffer.limit()));
+                handlerPool.execute(() -> processStatsMessage(channel, clientAddress, datagram));
                 
-            } catch (IOException | InterruptedException e) {
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
                 if (isRunning) {
                     logger.error("Error in UDP server loop", e);
                 }
@@ -99,25 +271,25 @@ public class UdpStatsServer {
     /**
      * Process statistics messages
      */
-    private void processStatsMessage(SocketAddress clientAddress, String message) {
+    private void processStatsMessage(DatagramChannel channel, SocketAddress clientAddress, ByteBuffer datagram) {
         try {
-            StatsMessage statsMessage = objectMapper.readValue(message, StatsMessage.class);
+            StatsMessage statsMessage = objectMapper.readValue(datagram.array(), 0, datagram.limit(), StatsMessage.class);
             
             switch (statsMessage.getType()) {
                 case "GAME_COMPLETED":
-                    handleGameCompleted(clientAddress, statsMessage);
+                    handleGameCompleted(channel, clientAddress, statsMessage);
                     break;
                 case "PLAYER_MOVE":
-                    handlePlayerMove(clientAddress, statsMessage);
+                    handlePlayerMove(channel, clientAddress, statsMessage);
                     break;
                 case "GET_LEADERBOARD":
-                    handleGetLeaderboard(clientAddress, statsMessage);
+                    handleGetLeaderboard(channel, clientAddress, statsMessage);
                     break;
                 case "GET_PLAYER_STATS":
-                    handleGetPlayerStats(clientAddress, statsMessage);
+                    handleGetPlayerStats(channel, clientAddress, statsMessage);
                     break;
                 case "PING":
-                    handlePing(clientAddress);
+                    handlePing(channel, clientAddress);
                     break;
                 default:
                     logger.warn("Unknown stats message type: {}", statsMessage.getType());
@@ -131,7 +303,7 @@ public class UdpStatsServer {
     /**
      * Handle game completion statistics
      */
-    private void handleGameCompleted(SocketAddress clientAddress, StatsMessage message) {
+    private void handleGameCompleted(DatagramChannel channel, SocketAddress clientAddress, StatsMessage message) {
         String playerId = message.getPlayerId();
         Map<String, Object> gameData = message.getData();
         
@@ -152,56 +324,64 @@ public class UdpStatsServer {
         logger.info("Game completed stats updated for player: {}", playerId);
         
         // Send acknowledgment
-        sendResponse(clientAddress, createAckMessage("GAME_STATS_UPDATED"));
+        sendResponse(channel, clientAddress, createAckMessage("GAME_STATS_UPDATED"));
     }
     
     /**
      * Handle player move statistics
      */
-    private void handlePlayerMove(SocketAddress clientAddress, StatsMessage message) {
+    private void handlePlayerMove(DatagramChannel channel, SocketAddress clientAddress, StatsMessage message) {
         String playerId = message.getPlayerId();
         Map<String, Object> moveData = message.getData();
         
         PlayerStats stats = playerStats.computeIfAbsent(playerId, k -> new PlayerStats(playerId));
         
         String word = (String) moveData.get("word");
-        String[] colors = (String[]) moveData.get("colors");
+        int guess = WordleScorer.pack(word);
+        int pattern = movePattern(moveData);
+        if (guess < 0 || pattern < 0) {
+            sendResponse(channel, clientAddress, createErrorMessage("INVALID_MOVE"));
+            return;
+        }
         
-        stats.addMove(word, colors);
+        if (Boolean.TRUE.equals(moveData.get("newGame"))) {
+            stats.clearCurrentCandidates();
+        }
+        stats.addMove(word, pattern);
         
         // Send response with move analysis
-        Map<String, Object> analysis = analyzeMoveEfficiency(word, colors);
-        sendResponse(clientAddress, createDataMessage("MOVE_ANALYSIS", analysis));
+        Map<String, Object> analysis = analyzeMove(stats, guess, pattern);
+        sendResponse(channel, clientAddress, createDataMessage("MOVE_ANALYSIS", analysis));
     }
     
     /**
      * Handle leaderboard request
      */
-    private void handleGetLeaderboard(SocketAddress clientAddress, StatsMessage message) {
+    private void handleGetLeaderboard(DatagramChannel channel, SocketAddress clientAddress, StatsMessage message) {
         List<Map<String, Object>> leaderboard = generateLeaderboard();
-        sendResponse(clientAddress, createDataMessage("LEADERBOARD", leaderboard));
+        sendResponse(channel, clientAddress, createDataMessage("LEADERBOARD", leaderboard));
     }
     
     /**
      * Handle player stats request
      */
-    private void handleGetPlayerStats(SocketAddress clientAddress, StatsMessage message) {
+    private void handleGetPlayerStats(DatagramChannel channel, SocketAddress clientAddress, StatsMessage message) {
         String playerId = message.getPlayerId();
         PlayerStats stats = playerStats.get(playerId);
         
         if (stats != null) {
             Map<String, Object> statsData = stats.toMap();
-            sendResponse(clientAddress, createDataMessage("PLAYER_STATS", statsData));
+            sendResponse(channel, clientAddress, createDataMessage("PLAYER_STATS", statsData));
         } else {
-            sendResponse(clientAddress, createErrorMessage("PLAYER_NOT_FOUND"));
+            sendResponse(channel, clientAddress, createErrorMessage("PLAYER_NOT_FOUND"));
         }
     }
     
     /**
      * Handle ping request
      */
-    private void handlePing(SocketAddress clientAddress) {
-        sendResponse(clientAddress, createAckMessage("PONG"));
+    private void handlePing(DatagramChannel channel, SocketAddress clientAddress) {
+        sendResponse(channel, clientAddress, createAckMessage("PONG"));
     }
     
     /**
@@ -224,31 +404,62 @@ public class UdpStatsServer {
     }
     
     /**
-     * Analyze move efficiency
+     * Feedback pattern of a move: the "pattern" code (0..242) if given, else its "colors"; -1 if neither is valid
      */
-    private Map<String, Object> analyzeMoveEfficiency(String word, String[] colors) {
+    private int movePattern(Map<String, Object> moveData) {
+        Object pattern = moveData.get("pattern");
+        if (pattern instanceof Number number) {
+            int code = number.intValue();
+            return WordleScorer.isPattern(code) ? code : -1;
+        }
+        return WordleScorer.parseColors(moveData.get("colors"));
+    }
+    
+    /**
+     * Analyze a move against the answers the player's game still allows, narrowing them by it
+     */
+    private Map<String, Object> analyzeMove(PlayerStats stats, int guess, int pattern) {
+        long start = System.nanoTime();
+        MoveAnalyzer analyzer = moveAnalyzer;
+        MoveAnalyzer.Analysis result;
+        synchronized (stats) {
+            result = analyzer.analyze(stats.getCurrentCandidates(analyzer::newCandidateSet), guess, pattern);
+            if (pattern == WordleScorer.ALL_GREEN) {
+                stats.clearCurrentCandidates();
+            }
+        }
+        analyses.increment();
+        analysisNanos.add(System.nanoTime() - start);
+        
         Map<String, Object> analysis = new HashMap<>();
+        int greenCount = WordleScorer.countGreens(pattern);
+        int yellowCount = WordleScorer.countYellows(pattern);
+        int grayCount = WordleScorer.countGrays(pattern);
         
-        int greenCount = 0;
-        int yellowCount = 0;
-        int grayCount = 0;
+        // Share of the information still needed before this guess that it delivered
+        double needed = Math.log(result.candidatesBefore()) / Math.log(2);
+        double efficiency = pattern == WordleScorer.ALL_GREEN ? 1.0
+                : needed > 0 ? Math.min(1.0, result.informationGained() / needed) : 0.0;
         
-        for (String color : colors) {
-            switch (color) {
-                case "green": greenCount++; break;
-                case "yellow": yellowCount++; break;
-                case "gray": grayCount++; break;
-            }
+        List<Map<String, Object>> topGuesses = new ArrayList<>();
+        for (MoveAnalyzer.Suggestion suggestion : result.topGuesses()) {
+            topGuesses.add(Map.of("word", suggestion.word(), "entropy", suggestion.entropy(),
+                    "candidate", suggestion.candidate()));
         }
         
-        // Calculate efficiency score
-        double efficiency = (greenCount * 3 + yellowCount * 1) / 15.0; // Max possible is 15 (5 greens)
-        
         analysis.put("efficiency", efficiency);
         analysis.put("greenCount", greenCount);
         analysis.put("yellowCount", yellowCount);
         analysis.put("grayCount", grayCount);
-        analysis.put("suggestion", generateMoveSuggestion(efficiency));
+        analysis.put("candidatesBefore", result.candidatesBefore());
+        analysis.put("candidatesRemaining", result.candidatesRemaining());
+        analysis.put("entropy", result.entropy());
+        analysis.put("informationGained", result.informationGained());
+        analysis.put("topGuesses", topGuesses);
+        if (!result.remainingWords().isEmpty()) {
+            analysis.put("remainingWords", result.remainingWords());
+        }
+        analysis.put("suggestion", generateMoveSuggestion(pattern, result));
         
         return analysis;
     }
@@ -256,26 +467,29 @@ public class UdpStatsServer {
     /**
      * Generate move suggestion
      */
-    private String generateMoveSuggestion(double efficiency) {
-        if (efficiency >= 0.8) {
-            return "Excellent move! You're very close to the answer.";
-        } else if (efficiency >= 0.5) {
-            return "Good progress! Try to use the yellow letters in different positions.";
-        } else if (efficiency >= 0.2) {
-            return "Keep trying! Consider using different vowels.";
-        } else {
-            return "Try a word with common letters like R, S, T, L, N.";
+    private String generateMoveSuggestion(int pattern, MoveAnalyzer.Analysis result) {
+        if (pattern == WordleScorer.ALL_GREEN) {
+            return "Solved!";
+        } else if (result.candidatesRemaining() == 0) {
+            return "No word in the dictionary fits this feedback.";
+        } else if (result.candidatesRemaining() == 1) {
+            return "The answer must be " + result.remainingWords().get(0) + ".";
+        } else if (result.topGuesses().isEmpty()) {
+            return result.candidatesRemaining() + " words remain.";
         }
+        MoveAnalyzer.Suggestion best = result.topGuesses().get(0);
+        return String.format("%d words remain; %s is the most informative next guess (%.2f bits).",
+                result.candidatesRemaining(), best.word(), best.entropy());
     }
     
     /**
-     * Send response to client
+     * Send response to client from the socket the request arrived on
      */
-    private void sendResponse(SocketAddress clientAddress, StatsMessage response) {
+    private void sendResponse(DatagramChannel channel, SocketAddress clientAddress, StatsMessage response) {
         try {
             String json = objectMapper.writeValueAsString(response);
             ByteBuffer buffer = ByteBuffer.wrap(json.getBytes("UTF-8"));
-            udpChannel.send(buffer, clientAddress);
+            channel.send(buffer, clientAddress);
             
         } catch (Exception e) {
             logger.error("Error sending UDP response", e);
@@ -315,15 +529,22 @@ public class UdpStatsServer {
     /**
      * Stop UDP server
      */
-    public void stopServer() {
+    public synchronized void stopServer() {
         isRunning = false;
         
         try {
-            if (udpChannel != null) {
-                udpChannel.close();
-            }
+            closeChannels(channels);
             
-            threadPool.shutdown();
+            if (threadPool != null) {
+                threadPool.shutdown();
+            }
+            if (handlerPool != null) {
+                handlerPool.shutdown();
+            }
+            if (analysisPool != null) {
+                analysisPool.shutdown();
+                analysisPool = null;
+            }
             
             logger.info("UDP Stats Server stopped");
             
@@ -332,6 +553,13 @@ public class UdpStatsServer {
         }
     }
     
+    /**
+     * Configured UDP port (wordle.udp.port)
+     */
+    public int getPort() {
+        return port;
+    }
+    
     /**
      * Get server statistics
      */
@@ -339,7 +567,12 @@ public class UdpStatsServer {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalPlayers", playerStats.size());
         stats.put("totalGames", gameStats.values().stream().mapToInt(GameStatistics::getTotalGames).sum());
-        stats.put("serverPort", UDP_PORT);
+        stats.put("serverPort", port);
+        stats.put("shards", channels.size());
+        stats.put("droppedDatagrams", droppedDatagrams.sum());
+        long analysisCount = analyses.sum();
+        stats.put("moveAnalyses", analysisCount);
+        stats.put("averageAnalysisMicros", analysisCount > 0 ? analysisNanos.sum() / analysisCount / 1000 : 0);
         stats.put("isRunning", isRunning);
         
         return stats;
@@ -0,0 +1,233 @@
+package com.wordle.game.network;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Blocking Thread-per-Connection engine chạy trên Virtual Threads
+ * Áp dụng kiến thức: Virtual Threads (Project Loom), Blocking I/O, Thread-per-Connection
+ *
+ * Alternative to the selector workers, chosen with wordle.tcp.engine=virtual-threads.
+ * Every connection gets three cheap threads over a blocking channel: a reader
+ * that decodes frames and runs the shared message handlers, a writer that
+ * drains the outbound queue, and a loop that runs commands and the idle timer
+ * (the connection's {@link ConnectionLoop}). A write blocked on a slow client
+ * therefore never delays its commands, and closing the channel unblocks both
+ * reader and writer.
+ *
+ * Virtual threads need Java 21 (build with -Pjava21); on an older runtime
+ * the engine falls back to platform threads so it still runs for comparison.
+ */
+public class VirtualThreadEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadEngine.class);
+
+    private static final long TIMER_TICK_MILLIS = 250;
+    private static final int TIMER_WHEEL_SIZE = 64;
+
+    private final TcpGameServer server;
+    private final ExecutorService threads;
+    private final boolean virtual;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private volatile boolean running;
+
+    public VirtualThreadEngine(TcpGameServer server) {
+        this.server = server;
+        ExecutorService executor = newVirtualThreadExecutor();
+        this.virtual = executor != null;
+        this.threads = virtual ? executor : Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor(), looked up reflectively so the
+     * class still compiles for Java 17
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Virtual threads are not available on Java {}; using platform threads",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    /**
+     * Accept connections on each blocking listener until it is closed
+     */
+    public void start(List<ServerSocketChannel> listeners) {
+        running = true;
+        for (ServerSocketChannel listener : listeners) {
+            threads.execute(() -> acceptLoop(listener));
+        }
+    }
+
+    private void acceptLoop(ServerSocketChannel serverChannel) {
+        while (running) {
+            try {
+                SocketChannel clientChannel = serverChannel.accept();
+                if (!server.admit(clientChannel)) {
+                    continue;
+                }
+                connectionCount.incrementAndGet();
+                try {
+                    threads.execute(new Connection(clientChannel)::runLoop);
+                } catch (RejectedExecutionException e) {
+                    // Stopping: nothing owns the channel yet, so give its slot back here
+                    connectionCount.decrementAndGet();
+                    server.dropAccepted(clientChannel);
+                }
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (running) {
+                    logger.error("Error accepting connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop all threads; interrupting a thread blocked on a channel closes that channel
+     */
+    public void stop() {
+        running = false;
+        threads.shutdownNow();
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Loop, reader and writer of one blocking connection
+     */
+    private final class Connection implements ConnectionLoop {
+        private final SocketChannel channel;
+        private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+        private final Semaphore writeSignal = new Semaphore(0);
+        private final TimingWheel timers = new TimingWheel(TIMER_TICK_MILLIS, TIMER_WHEEL_SIZE, currentMillis());
+        private volatile Thread loopThread;
+        private volatile boolean closed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void runLoop() {
+            loopThread = Thread.currentThread();
+            // Registration runs here because it arms the idle timer on this loop
+            PlayerConnection connection = server.onChannelRegistered(channel, this);
+            threads.execute(() -> readLoop(connection));
+            threads.execute(() -> writeLoop(connection));
+
+            while (!closed) {
+                try {
+                    Runnable command = commands.poll(Math.max(1, timers.millisUntilNextTick(currentMillis())), TimeUnit.MILLISECONDS);
+                    while (command != null) {
+                        command.run();
+                        command = commands.poll();
+                    }
+                    timers.advance(currentMillis());
+                } catch (InterruptedException e) {
+                    server.handleClientDisconnect(channel);
+                    break;
+                } catch (RuntimeException e) {
+                    logger.error("Error running command for {}", connection.getPlayerId(), e);
+                }
+            }
+        }
+
+        private void readLoop(PlayerConnection connection) {
+            FrameCodec codec = connection.getFrameCodec();
+            try {
+                while (channel.read(codec.readBuffer()) >= 0) {
+                    codec.decode((buffer, offset, length) -> server.processGameMessage(connection, buffer, offset, length));
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.debug("Read failed for {}", connection.getPlayerId(), e);
+                }
+            } finally {
+                // The reader owns the read buffer, so it is released here and not by the loop
+                codec.release();
+                if (!closed) {
+                    execute(() -> server.handleClientDisconnect(channel));
+                }
+            }
+        }
+
+        private void writeLoop(PlayerConnection connection) {
+            try {
+                while (!closed) {
+                    writeSignal.acquire();
+                    writeSignal.drainPermits();
+                    // Blocking channel: returns once every queued frame is written
+                    connection.writeData();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                if (!closed) {
+                    execute(() -> server.handleClientDisconnect(channel));
+                }
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            commands.offer(command);
+        }
+
+        @Override
+        public boolean inEventLoop() {
+            return Thread.currentThread() == loopThread;
+        }
+
+        @Override
+        public TimingWheel.Timeout schedule(Runnable task, long delayMillis) {
+            return timers.schedule(task, delayMillis);
+        }
+
+        @Override
+        public void flush(PlayerConnection connection) {
+            writeSignal.release();
+        }
+
+        @Override
+        public void onConnectionClosed(PlayerConnection connection) {
+            closed = true;
+            connectionCount.decrementAndGet();
+            connection.getOutboundQueue().clear();
+            // Wake the writer so it sees the flag
+            writeSignal.release();
+        }
+
+        @Override
+        public String toString() {
+            return virtual ? "virtual thread" : "platform thread";
+        }
+    }
+
+    private static long currentMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
@@ -0,0 +1,189 @@
+package com.wordle.game.network;
+
+import java.util.List;
+
+/**
+ * Chấm điểm Wordle trên số nguyên
+ * Áp dụng kiến thức: Bit Packing, Allocation-free Hot Path, Base-3 Encoding
+ *
+ * A five-letter word is packed into one int, five bits per letter with
+ * position 0 in the low bits, so case is folded once when the word is
+ * packed. Scoring a guess against a target returns the whole feedback as one
+ * base-3 code in 0..242: digit {@code i} (weight 3^i) is {@link #GRAY},
+ * {@link #YELLOW} or {@link #GREEN} for letter {@code i} of the guess.
+ * Nothing here allocates except {@link #colors(int)}, which is only meant
+ * for the point where a pattern is serialized.
+ */
+public final class WordleScorer {
+
+    public static final int WORD_LENGTH = 5;
+    /** Number of distinct patterns, 3^5 */
+    public static final int PATTERN_COUNT = 243;
+    /** Pattern of a correct guess: five greens */
+    public static final int ALL_GREEN = PATTERN_COUNT - 1;
+
+    public static final int GRAY = 0;
+    public static final int YELLOW = 1;
+    public static final int GREEN = 2;
+
+    private static final int LETTER_BITS = 5;
+    private static final int LETTER_MASK = (1 << LETTER_BITS) - 1;
+    private static final int[] POWERS = {1, 3, 9, 27, 81};
+    private static final String[] COLOR_NAMES = {"gray", "yellow", "green"};
+
+    private WordleScorer() {
+    }
+
+    /**
+     * Pack a five-letter word, case-insensitive; -1 if it is not five ASCII letters
+     */
+    public static int pack(CharSequence word) {
+        if (word == null || word.length() != WORD_LENGTH) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            int letter = (word.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter >= 26) {
+                return -1;
+            }
+            packed |= letter << (i * LETTER_BITS);
+        }
+        return packed;
+    }
+
+    /**
+     * Letter at a position of a packed word, 0 for 'A'
+     */
+    public static int letterAt(int packed, int position) {
+        return (packed >>> (position * LETTER_BITS)) & LETTER_MASK;
+    }
+
+    /**
+     * Upper-case word of a packed word
+     */
+    public static String unpack(int packed) {
+        char[] letters = new char[WORD_LENGTH];
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            letters[i] = (char) ('A' + letterAt(packed, i));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Feedback pattern of a packed guess against a packed target.
+     * Greens are taken first; each remaining target letter then turns at
+     * most one guess letter yellow, from left to right.
+     */
+    public static int score(int guess, int target) {
+        int pattern = 0;
+        int greens = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            if (letterAt(guess, i) == letterAt(target, i)) {
+                pattern += GREEN * POWERS[i];
+                greens |= 1 << i;
+            }
+        }
+        // Bit j set: target letter j is already matched
+        int used = greens;
+        for (int i = 0; i < WORD_LENGTH && used != (1 << WORD_LENGTH) - 1; i++) {
+            if ((greens & (1 << i)) != 0) {
+                continue;
+            }
+            int letter = letterAt(guess, i);
+            for (int j = 0; j < WORD_LENGTH; j++) {
+                if ((used & (1 << j)) == 0 && letterAt(target, j) == letter) {
+                    pattern += YELLOW * POWERS[i];
+                    used |= 1 << j;
+                    break;
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Color digit of one position of a pattern
+     */
+    public static int colorAt(int pattern, int position) {
+        return pattern / POWERS[position] % 3;
+    }
+
+    public static int countGreens(int pattern) {
+        return count(pattern, GREEN);
+    }
+
+    public static int countYellows(int pattern) {
+        return count(pattern, YELLOW);
+    }
+
+    public static int countGrays(int pattern) {
+        return count(pattern, GRAY);
+    }
+
+    private static int count(int pattern, int color) {
+        int count = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            if (pattern % 3 == color) {
+                count++;
+            }
+            pattern /= 3;
+        }
+        return count;
+    }
+
+    /**
+     * Name of a color digit as clients spell it
+     */
+    public static String colorName(int color) {
+        return COLOR_NAMES[color];
+    }
+
+    /**
+     * Color names of a pattern, for serialization
+     */
+    public static String[] colors(int pattern) {
+        String[] colors = new String[WORD_LENGTH];
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            colors[i] = COLOR_NAMES[colorAt(pattern, i)];
+        }
+        return colors;
+    }
+
+    /**
+     * Pattern of five color names (a list or an array, as clients send them); -1 if malformed
+     */
+    public static int parseColors(Object colors) {
+        if (colors instanceof Object[] array) {
+            colors = List.of(array);
+        }
+        if (!(colors instanceof List<?> list) || list.size() != WORD_LENGTH) {
+            return -1;
+        }
+        int pattern = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            int color = colorOf(list.get(i));
+            if (color < 0) {
+                return -1;
+            }
+            pattern += color * POWERS[i];
+        }
+        return pattern;
+    }
+
+    private static int colorOf(Object name) {
+        for (int color = 0; color < COLOR_NAMES.length; color++) {
+            if (COLOR_NAMES[color].equals(name)) {
+                return color;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * True if {@code pattern} is a valid code, 0..242
+     */
+    public static boolean isPattern(int pattern) {
+        return pattern >= 0 && pattern < PATTERN_COUNT;
+    }
+}
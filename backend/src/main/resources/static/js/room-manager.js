@@ -118,8 +118,9 @@ class RoomManager {
 
         // Subscribe to chat messages
         this.stompClient.subscribe(`/topic/room/${roomCode}/chat`, (message) => {
-            const chatMessage = JSON.parse(message.body);
-            this.addChatMessage(chatMessage);
+            // The server batches chat: one frame carries every line of a tick
+            const chatBatch = JSON.parse(message.body);
+            (chatBatch.messages || [chatBatch]).forEach(chatMessage => this.addChatMessage(chatMessage));
         });
 
         // Subscribe to game start